@@ -0,0 +1,21 @@
+package FakeRestApi.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// JMH's own command line with the GC profiler always on, so every result comes with its
+// allocation rate (gc.alloc.rate.norm is bytes per operation). Takes the usual JMH arguments,
+// e.g. java -jar target/benchmarks.jar ResponseAssertion -p size=1000
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
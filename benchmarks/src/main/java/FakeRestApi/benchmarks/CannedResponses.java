@@ -0,0 +1,43 @@
+package FakeRestApi.benchmarks;
+
+import FakeRestApi.standin.Resource;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+// List responses shaped like the service's, built from the stand-in seed data and repeated with
+// fresh ids up to the requested size. Authors all get the last name "Doe" so the everyItem
+// assertion from AuthorsTests has to walk the whole list.
+final class CannedResponses {
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8; v=1.0";
+
+    private CannedResponses() {
+    }
+
+    static String list(Resource resource, int size) {
+        List<ObjectNode> seed = resource.seed(OffsetDateTime.now());
+        ArrayNode list = JsonNodeFactory.instance.arrayNode(size);
+        for (int i = 0; i < size; i++) {
+            ObjectNode entity = seed.get(i % seed.size()).deepCopy().put("id", i + 1);
+            if (resource == Resource.AUTHORS) {
+                entity.put("lastName", "Doe");
+            }
+            list.add(entity);
+        }
+        return list.toString();
+    }
+
+    static Response response(String body) {
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setStatusLine("HTTP/1.1 200 OK")
+                .setContentType(CONTENT_TYPE)
+                .setBody(body)
+                .build();
+    }
+}
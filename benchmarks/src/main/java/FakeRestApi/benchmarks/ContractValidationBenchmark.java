@@ -0,0 +1,72 @@
+package FakeRestApi.benchmarks;
+
+import FakeRestApi.contract.Schema;
+import FakeRestApi.contract.SchemaRegistry;
+import FakeRestApi.standin.Resource;
+import FakeRestApi.support.EndpointMetrics.Endpoint;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of validating one list response against its contract, as ContractFilter does for every
+// response, next to the cost of just tokenizing the same body with Jackson.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContractValidationBenchmark {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Param({"BOOKS", "ACTIVITIES", "AUTHORS"})
+    public Resource resource;
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private byte[] body;
+    private Schema schema;
+
+    @Setup
+    public void setUp() {
+        body = CannedResponses.list(resource, size).getBytes(StandardCharsets.UTF_8);
+        schema = SchemaRegistry.forEndpoint(new Endpoint("GET", "/api/v1/" + resource.path()));
+    }
+
+    @Benchmark
+    public List<String> validate() {
+        return SchemaRegistry.validate(schema, body);
+    }
+
+    // Baseline: reading every token of the body without checking anything
+    @Benchmark
+    public int tokenizeOnly() throws IOException {
+        int tokens = 0;
+        try (JsonParser parser = JSON.createParser(body)) {
+            while (parser.nextToken() != null) {
+                if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                    parser.getText();
+                }
+                tokens++;
+            }
+        }
+        return tokens;
+    }
+}
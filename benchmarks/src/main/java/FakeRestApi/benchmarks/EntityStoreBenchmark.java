@@ -0,0 +1,88 @@
+package FakeRestApi.benchmarks;
+
+import FakeRestApi.standin.EntityStore;
+import FakeRestApi.standin.Resource;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// The stand-in server's books store under load: lookups by id, the list endpoint's snapshot, and
+// a mixed group of readers next to one writer. The skip list the store used before is the
+// baseline for lookups. Run with -t 1 and then -t <cores> to see how lookups scale with threads;
+// the mixed group runs 3 readers per writer, scale it with -tg.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityStoreBenchmark {
+    @Param({"200", "10000"})
+    public int size;
+
+    private EntityStore store;
+    private ConcurrentSkipListMap<Integer, ObjectNode> skipList;
+    private ObjectNode template;
+
+    @Setup
+    public void setUp() {
+        List<ObjectNode> seed = Resource.BOOKS.seed(OffsetDateTime.now());
+        List<ObjectNode> books = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            books.add(seed.get((id - 1) % seed.size()).deepCopy().put("id", id));
+        }
+        store = new EntityStore(Resource.BOOKS, books);
+        skipList = new ConcurrentSkipListMap<>();
+        books.forEach(book -> skipList.put(book.get("id").intValue(), book));
+        template = seed.get(0);
+    }
+
+    @Benchmark
+    public ObjectNode get() {
+        return store.get(ThreadLocalRandom.current().nextInt(1, size + 1));
+    }
+
+    @Benchmark
+    public ObjectNode getSkipList() {
+        return skipList.get(ThreadLocalRandom.current().nextInt(1, size + 1));
+    }
+
+    // Unchanged store: the cached snapshot
+    @Benchmark
+    public List<ObjectNode> list() {
+        return store.list();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public ObjectNode mixedGet() {
+        return store.get(ThreadLocalRandom.current().nextInt(1, size + 1));
+    }
+
+    // Overwrites existing ids, so the store keeps its size
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public ObjectNode mixedUpdate() {
+        return store.update(ThreadLocalRandom.current().nextInt(1, size + 1), template.deepCopy());
+    }
+}
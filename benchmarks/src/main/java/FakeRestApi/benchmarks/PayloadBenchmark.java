@@ -0,0 +1,117 @@
+package FakeRestApi.benchmarks;
+
+import FakeRestApi.model.Author;
+import FakeRestApi.model.Payloads;
+import FakeRestApi.support.BaseApiTest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+// Ways of building an author payload. The tests used to concatenate string literals, which the
+// compiler folds into a constant, so these use a varying id to measure building one at run time;
+// the typed variants go through the model records and Payloads' cached writers.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadBenchmark {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private RequestSpecification spec;
+    private int id;
+
+    @Setup
+    public void setUp() {
+        spec = BaseApiTest.newRequestSpec();
+    }
+
+    @Benchmark
+    public String concatenation() {
+        int id = ++this.id;
+        return "{\n" +
+                "  \"id\": " + id + ",\n" +
+                "  \"idBook\": " + id + ",\n" +
+                "  \"firstName\": \"ali\",\n" +
+                "  \"lastName\": \"ihab\"\n" +
+                "}";
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        int id = ++this.id;
+        return String.format("{ \"id\": %d, \"idBook\": %d, \"firstName\": \"%s\", \"lastName\": \"%s\" }", id, id, "ali", "ihab");
+    }
+
+    @Benchmark
+    public String jacksonTree() {
+        int id = ++this.id;
+        return JsonNodeFactory.instance.objectNode()
+                .put("id", id)
+                .put("idBook", id)
+                .put("firstName", "ali")
+                .put("lastName", "ihab")
+                .toString();
+    }
+
+    @Benchmark
+    public String jacksonMap() throws JsonProcessingException {
+        return MAPPER.writeValueAsString(authorMap(++id));
+    }
+
+    // body(Map) makes RestAssured pick an object mapper and serialize the map itself
+    @Benchmark
+    public RequestSpecification restAssuredMapBody() {
+        return given().contentType("application/json").body(authorMap(++id));
+    }
+
+    // The typed model through the cached ObjectWriter
+    @Benchmark
+    public byte[] typedModelBytes() {
+        return Payloads.bytes(Author.sample(++id));
+    }
+
+    // Streamed into a reused buffer, the way a request body stream would receive it
+    @Benchmark
+    public int typedModelWrite() throws IOException {
+        buffer.reset();
+        Payloads.write(Author.sample(++id), buffer);
+        return buffer.size();
+    }
+
+    // body(model) on the test spec, which serializes through the same cached writer
+    @Benchmark
+    public RequestSpecification typedModelRestAssuredBody() {
+        return given().spec(spec).contentType("application/json").body(Author.sample(++id));
+    }
+
+    private static Map<String, Object> authorMap(int id) {
+        Map<String, Object> author = new LinkedHashMap<>();
+        author.put("id", id);
+        author.put("idBook", id);
+        author.put("firstName", "ali");
+        author.put("lastName", "ihab");
+        return author;
+    }
+}
@@ -0,0 +1,55 @@
+package FakeRestApi.benchmarks;
+
+import FakeRestApi.support.BaseApiTest;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+// What every test pays before a request goes out: given().spec(request()) merges the shared spec
+// (config, filters, base URI) into a fresh one, then the test adds its header and body.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestSpecBenchmark {
+    private static final String AUTHOR_PAYLOAD = "{ \"id\": 3, \"idBook\": 3, \"firstName\": \"ali\", \"lastName\": \"ihab\" }";
+
+    private RequestSpecification base;
+
+    @Setup
+    public void setUp() {
+        base = BaseApiTest.newRequestSpec();
+    }
+
+    @Benchmark
+    public RequestSpecification newRequestSpec() {
+        return BaseApiTest.newRequestSpec();
+    }
+
+    @Benchmark
+    public RequestSpecification mergeSpec() {
+        return given().spec(base);
+    }
+
+    @Benchmark
+    public RequestSpecification mergeSpecWithHeaderAndBody() {
+        return given()
+                .spec(base)
+                .header("Content-Type", "application/json")
+                .body(AUTHOR_PAYLOAD);
+    }
+}
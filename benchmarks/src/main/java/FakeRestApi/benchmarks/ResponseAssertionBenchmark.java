@@ -0,0 +1,110 @@
+package FakeRestApi.benchmarks;
+
+import FakeRestApi.standin.Resource;
+import io.restassured.response.Response;
+import io.restassured.response.ValidatableResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static FakeRestApi.support.JsonBody.json;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.notNullValue;
+
+// Cost of the then().body(path, matcher) assertions the tests make, on canned list responses of
+// increasing size. Every GPath assertion evaluates its expression against the body again; the
+// streaming variants check the same things with JsonBody in one Jackson pass.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseAssertionBenchmark {
+    @Param({"BOOKS", "ACTIVITIES", "AUTHORS"})
+    public Resource resource;
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private Response response;
+
+    @Setup
+    public void setUp() {
+        response = CannedResponses.response(CannedResponses.list(resource, size));
+    }
+
+    // body("size()", greaterThan(0)), as in the fetch-all tests
+    @Benchmark
+    public ValidatableResponse sizeGreaterThanZero() {
+        return response.then().body("size()", greaterThan(0));
+    }
+
+    // body("[0].id", notNullValue()): one element out of the list
+    @Benchmark
+    public ValidatableResponse firstItemId() {
+        return response.then().body("[0].id", notNullValue());
+    }
+
+    // body("id", everyItem(...)): collects a field of every element, then matches each value
+    @Benchmark
+    public ValidatableResponse everyItemId() {
+        return response.then().body("id", everyItem(notNullValue()));
+    }
+
+    // body("lastName", everyItem(equalTo("Doe"))) from AuthorsTests; only Authors carry lastName
+    @Benchmark
+    public ValidatableResponse everyItemEqualTo() {
+        return resource == Resource.AUTHORS
+                ? response.then().body("lastName", everyItem(equalTo("Doe")))
+                : response.then().body("title", everyItem(notNullValue()));
+    }
+
+    // The same field read through JsonPath without a matcher
+    @Benchmark
+    public List<Integer> jsonPathIds() {
+        return response.jsonPath().getList("id");
+    }
+
+    // The same assertions through the streaming JsonBody matcher
+    @Benchmark
+    public ValidatableResponse streamingSizeGreaterThanZero() {
+        return response.then().body(json().size(greaterThan(0)));
+    }
+
+    @Benchmark
+    public ValidatableResponse streamingFirstItemId() {
+        return response.then().body(json().path("[0].id", notNullValue()));
+    }
+
+    @Benchmark
+    public ValidatableResponse streamingEveryItemId() {
+        return response.then().body(json().every("id", notNullValue()));
+    }
+
+    @Benchmark
+    public ValidatableResponse streamingEveryItemEqualTo() {
+        return resource == Resource.AUTHORS
+                ? response.then().body(json().every("lastName", equalTo("Doe")))
+                : response.then().body(json().every("title", notNullValue()));
+    }
+
+    // Baseline: then() plus a status code assertion, which never touches the body
+    @Benchmark
+    public ValidatableResponse statusCodeOnly() {
+        return response.then().statusCode(200);
+    }
+}
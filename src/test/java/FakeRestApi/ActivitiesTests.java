@@ -1,31 +1,29 @@
 package FakeRestApi;
 
-import io.restassured.specification.RequestSpecification;
-import org.testng.annotations.BeforeClass;
+import FakeRestApi.load.LoadScenario;
+import FakeRestApi.model.Activity;
+import FakeRestApi.support.BaseApiTest;
+import FakeRestApi.support.EntityPool;
+import FakeRestApi.support.ResourceLock;
 import org.testng.annotations.Test;
 
 import java.util.HashMap;
 
+import static FakeRestApi.support.JsonBody.json;
+import static FakeRestApi.support.ResourceLock.Mode.WRITE;
 import static io.restassured.RestAssured.*;
 import static io.restassured.matcher.ResponseAwareMatcher.*;
 import static org.hamcrest.Matchers.*;
 
-public class ActivitiesTests {
+public class ActivitiesTests extends BaseApiTest {
 
-    RequestSpecification request;
-    @BeforeClass
-    public void setup() {
-        request = given()
-                .log().all()
-                .baseUri("https://fakerestapi.azurewebsites.net");
-
-
-    }
     @Test
+    @ResourceLock("Activities")
+    @LoadScenario
     public void testFetchAllActivities() {
         // Send GET request and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
         .when()
                 .get("/api/v1/Activities")
@@ -36,6 +34,8 @@ public class ActivitiesTests {
                 .body("title", not(empty()));  // Assert that "title" is not empty in the response body
     }
     @Test
+    @ResourceLock("Activities")
+    @LoadScenario(weight = 2)
     public void testFetchActivityByValidId() {
 
         // Valid Activity ID to fetch
@@ -43,7 +43,7 @@ public class ActivitiesTests {
 
         // Send GET request and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
         .when()
                 .get("/api/v1/Activities/" + activityId)
@@ -56,14 +56,16 @@ public class ActivitiesTests {
                 .body("completed", notNullValue());  // Assert that the "completed" field is not null
     }
     @Test
+    @ResourceLock(value = "Activities", mode = WRITE)
+    @LoadScenario
     public void testCreateNewActivity() {
 
         // Request payload for creating a new activity
-        String requestBody ="{ \"title\": \"New Activity\", \"description\": \"Activity Description\" }";
+        Activity requestBody = Activity.titled("New Activity");
 
         // Send POST request and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
                 .body(requestBody)
 
@@ -72,63 +74,63 @@ public class ActivitiesTests {
         .then()
                 .assertThat()
                 .statusCode(200)
-                .log().all()
                 .body("id", notNullValue())  // Assert that the response contains a non-null activity ID
                 .body("title", equalTo("New Activity"))  // Assert that the title matches the one in the request
                 .body("dueDate", notNullValue())  // Assert that the due date is generated and not null
                 .body("completed", equalTo(false));  // Assert that the "completed" field defaults to false
     }
     @Test
+    @ResourceLock("Activities")
+    @LoadScenario
     public void testUpdateActivityByValidId() {
 
-        // Request payload for updating an activity
-        String requestBody = "{\n" +
-                "  \"title\": \"Updated Activity Title\"\n" +
-                "}";
-
-        // Valid Activity ID to update
-        int activityId = 0;
-
         // Send PUT request and validate the response
-        given()
-                .spec(request)
-                .header("Content-Type", "application/json")
-                .body(requestBody)  // Attach the request body
-        .when()
-                .put("/api/v1/Activities/" + activityId)
-        .then()
-                .assertThat()
-                .statusCode(200)  // Assert that the status code is 200 OK
-                .body("id", equalTo(activityId))  // Assert that the updated activity ID matches the requested ID
-                .body("title", equalTo("Updated Activity Title"))  // Assert that the title is updated correctly
-                .body("dueDate", notNullValue())  // Assert that the due date is still present
-                .body("completed", notNullValue());  // Assert that the "completed" field remains unchanged
+        try (EntityPool.Lease<Activity> activity = EntityPool.ACTIVITIES.lease()) {
+            // Request payload for updating an activity
+            Activity requestBody = new Activity(activity.id(), "Updated Activity Title", null, null);
+
+            given()
+                    .spec(request())
+                    .header("Content-Type", "application/json")
+                    .body(requestBody)  // Attach the request body
+            .when()
+                    .put("/api/v1/Activities/" + activity.id())
+            .then()
+                    .assertThat()
+                    .statusCode(200)  // Assert that the status code is 200 OK
+                    .body("id", equalTo(activity.id()))  // Assert that the updated activity ID matches the requested ID
+                    .body("title", equalTo("Updated Activity Title"))  // Assert that the title is updated correctly
+                    .body("dueDate", notNullValue())  // Assert that the due date is still present
+                    .body("completed", notNullValue());  // Assert that the "completed" field remains unchanged
+        }
     }
     @Test
+    @ResourceLock("Activities")
     public void testDeleteActivityByValidId() {
 
-        // Valid Activity ID to delete
-        int activityId = 1;
-
         // Send DELETE request and validate the response
-        given()
-                .spec(request)
-                .header("Content-Type", "application/json")
-        .when()
-                .delete("/api/v1/Activities/" + activityId)
-        .then()
-                .assertThat()
-                .statusCode(200)  // Assert that the status code is 200 OK
-                .body(equalTo(""));  // Assert that the response body is empty after deletion
+        try (EntityPool.Lease<Activity> activity = EntityPool.ACTIVITIES.lease()) {
+            activity.consume();  // Deleted below, so not handed back to the pool
+            given()
+                    .spec(request())
+                    .header("Content-Type", "application/json")
+            .when()
+                    .delete("/api/v1/Activities/" + activity.id())
+            .then()
+                    .assertThat()
+                    .statusCode(200)  // Assert that the status code is 200 OK
+                    .body(equalTo(""));  // Assert that the response body is empty after deletion
+        }
     }
     @Test
+    @ResourceLock("Activities")
     public void testFetchActivityByInvalidId() {
         // Invalid Activity ID
         String invalidActivityId = "abc";
 
         // Send GET request with an invalid ID and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
         .when()
                 .get("/api/v1/Activities/" + invalidActivityId)
@@ -138,6 +140,7 @@ public class ActivitiesTests {
                 .body(containsString("not valid"));  // Optionally, assert that the response contains an error message
     }
     @Test
+    @ResourceLock(value = "Activities", mode = WRITE)
     public void testCreateActivityWithMissingFields() {
         // Request payload with missing title
         String requestBody = "{\n" +
@@ -146,7 +149,7 @@ public class ActivitiesTests {
 
         // Send POST request with incomplete data and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
                 .body(requestBody)  // Attach the request body
         .when()
@@ -157,28 +160,29 @@ public class ActivitiesTests {
                 .body(containsString("Bad Request"));
     }
     @Test
+    @ResourceLock("Activities")
     public void testUpdateActivityWithEmptyPayload() {
-        // Valid Activity ID to update
-        int activityId = 1;
-
 
         // Send PUT request with an empty payload and validate the response
-        given()
-                .spec(request)
-        .when()
-                .put("/api/v1/Activities/" + activityId)
-        .then()
-                .assertThat()
-                .statusCode(415);  // Assert that the status code is 415 Unsupported Media Type
+        try (EntityPool.Lease<Activity> activity = EntityPool.ACTIVITIES.lease()) {
+            given()
+                    .spec(request())
+            .when()
+                    .put("/api/v1/Activities/" + activity.id())
+            .then()
+                    .assertThat()
+                    .statusCode(415);  // Assert that the status code is 415 Unsupported Media Type
+        }
     }
     @Test
+    @ResourceLock(value = "Activities", mode = WRITE)
     public void testDeleteActivityWithInvalidId() {
         // Invalid Activity ID
         int invalidActivityId = 9999;
 
         // Send DELETE request for invalid ID and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
         .when()
                 .delete("/api/v1/Activities/" + invalidActivityId)
@@ -188,6 +192,7 @@ public class ActivitiesTests {
                 .body(containsString("Not Found"));  // Optionally, assert that the response contains "Not Found" message
     }
     @Test
+    @ResourceLock(value = "Activities", mode = WRITE)
     public void testCreateActivityWithInvalidData() {
 
         // Invalid payload
@@ -197,7 +202,7 @@ public class ActivitiesTests {
 
         // Send POST request with invalid payload and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
                 .body(invalidPayload)  // Attach the invalid payload
                 .when()
@@ -208,6 +213,7 @@ public class ActivitiesTests {
                 .body(containsString("Bad Request"));
     }
     @Test
+    @ResourceLock("Activities")
     public void testFetchActivitiesWithQueryParams() {
 
         // Query parameter for filtering by date
@@ -215,7 +221,7 @@ public class ActivitiesTests {
 
         // Send GET request with query parameters and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
                 .queryParam("date", queryDate)  // Attach the query parameter
         .when()
@@ -223,10 +229,10 @@ public class ActivitiesTests {
         .then()
                 .assertThat()
                 .statusCode(200)  // Assert that the status code is 200 OK
-                .body("date", everyItem(equalTo(queryDate)))  // Validate that all returned activities have the correct date
-                .log().all();  // Optionally log the response for debugging
+                .body(json().every("date", equalTo(queryDate)));  // Validate that all returned activities have the correct date
     }
     @Test
+    @ResourceLock("Activities")
     public void testFetchActivitiesWithPagination() {
         // Pagination parameters
         int page = 1;
@@ -234,7 +240,7 @@ public class ActivitiesTests {
 
         // Send GET request with pagination parameters and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
                 .queryParam("page", page)  // Attach the page query parameter
                 .queryParam("size", size)  // Attach the size query parameter
@@ -243,8 +249,7 @@ public class ActivitiesTests {
         .then()
                 .assertThat()
                 .statusCode(200)  // Assert that the status code is 200 OK
-                .body("size()", equalTo(size))  // Validate that the number of activities returned matches the size
-                .log().all();  // Optionally log the response for debugging
+                .body(json().size(equalTo(size)));  // Validate that the number of activities returned matches the size
     }
 
 }
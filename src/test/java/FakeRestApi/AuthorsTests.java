@@ -1,66 +1,89 @@
 package FakeRestApi;
 
-import io.restassured.specification.RequestSpecification;
-import org.testng.annotations.BeforeClass;
+import FakeRestApi.load.LoadScenario;
+import FakeRestApi.model.Author;
+import FakeRestApi.support.BaseApiTest;
+import FakeRestApi.support.EntityPool;
+import FakeRestApi.support.ResourceLock;
+import io.restassured.response.Response;
 import org.testng.annotations.Test;
 
 import java.util.HashMap;
+import java.util.List;
 
+import static FakeRestApi.support.JsonBody.json;
+import static FakeRestApi.support.ResourceLock.Mode.WRITE;
 import static io.restassured.RestAssured.*;
 import static io.restassured.matcher.ResponseAwareMatcher.*;
 import static org.hamcrest.Matchers.*;
-public class AuthorsTests {
-    RequestSpecification request;
-    @BeforeClass
-    public void setup() {
-        request = given()
-                .log().all()
-                .baseUri("https://fakerestapi.azurewebsites.net");
-    }
+public class AuthorsTests extends BaseApiTest {
     @Test
+    @ResourceLock("Authors")
+    @LoadScenario
     public void testFetchAllAuthors() {
         // Send GET request to fetch all authors and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
         .when()
                 .get("/api/v1/Authors")
         .then()
                 .assertThat()
                 .statusCode(200)  // Assert that the status code is 200 OK
-                .body("size()", greaterThan(0))  // Assert that the response contains a list of authors
-                .log().all();  // Optionally log the response for debugging
+                .body(json().size(greaterThan(0)));  // Assert that the response contains a list of authors
     }
     @Test
+    @ResourceLock("Authors")
+    @LoadScenario(weight = 3)
     public void testFetchAuthorByValidId() {
         // Valid Author ID
         int authorId = 1;
 
         // Send GET request to fetch author by valid ID and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
         .when()
                 .get("/api/v1/Authors/" + authorId)
         .then()
                 .assertThat()
                 .statusCode(200)  // Assert that the status code is 200 OK
-                .body("id", equalTo(authorId))  // Assert that the returned author ID matches the requested ID
-                .log().all();  // Optionally log the response for debugging
+                .body("id", equalTo(authorId));  // Assert that the returned author ID matches the requested ID
     }
     @Test
+    @ResourceLock({"Authors", "Books"})
+    public void testFetchAuthorsOfEveryBook() {
+        // IDs of all books
+        List<Integer> bookIds = given()
+                .spec(request())
+        .when()
+                .get("/api/v1/Books")
+        .then()
+                .statusCode(200)
+                .extract().jsonPath().getList("id", Integer.class);
+
+        // Fetch the authors of every book at once, 16 requests at a time, and validate each response
+        List<Response> responses = async()
+                .fanOut(bookIds, bookId -> "/api/v1/Authors/authors/books/" + bookId, 16)
+                .join();
+        for (int i = 0; i < bookIds.size(); i++) {
+            responses.get(i)
+                    .then()
+                    .assertThat()
+                    .statusCode(200)  // Assert that the status code is 200 OK
+                    .body(json().every("idBook", equalTo(bookIds.get(i))));  // Assert that every author belongs to the book
+        }
+    }
+    @Test
+    @ResourceLock(value = "Authors", mode = WRITE)
+    @LoadScenario(weight = 2)
     public void testCreateNewAuthor() {
         // Valid payload for creating a new author
-        String newAuthorPayload = "{\n" +
-                "  \"id\": 3,\n" +
-                "  \"idBook\": 3,\n" +
-                "  \"firstName\": \"ali\",\n" +
-                "  \"lastName\": \"ihab\"\n" +
-                "}";
+        Author newAuthorPayload = new Author(3, 3, "ali", "ihab");
 
         // Send POST request to create a new author and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
                 .body(newAuthorPayload)  // Attach the new author payload
         .when()
@@ -69,58 +92,58 @@ public class AuthorsTests {
                 .assertThat()
                 .statusCode(200)  // Assert that the status code is 200 Created
                 .body("firstName", equalTo("ali"))  // Assert that the first name matches
-                .body("lastName", equalTo("ihab"))  // Assert that the last name matches
-                .log().all();  // Optionally log the response for debugging
+                .body("lastName", equalTo("ihab"));  // Assert that the last name matches
     }
     @Test
+    @ResourceLock("Authors")
+    @LoadScenario
     public void testUpdateAuthorByValidId() {
-        // Valid Author ID
-        int authorId = 1;
         // Payload for updating the author
-        String updatedAuthorPayload = "{\n" +
-                "  \"firstName\": \"Updated\",\n" +
-                "  \"lastName\": \"Doe\"\n" +
-                "}";
+        Author updatedAuthorPayload = Author.named("Updated", "Doe");
 
         // Send PUT request to update the author and validate the response
-        given()
-                .spec(request)
-                .header("Content-Type", "application/json")
-                .body(updatedAuthorPayload)  // Attach the updated author payload
-        .when()
-                .put("/api/v1/Authors/" + authorId)
-        .then()
-                .assertThat()
-                .statusCode(200)  // Assert that the status code is 200 OK
-                .body("firstName", equalTo("Updated"))  // Assert that the first name has been updated
-                .body("lastName", equalTo("Doe"))  // Assert that the last name has been updated
-                .log().all();  // Optionally log the response for debugging
+        try (EntityPool.Lease<Author> author = EntityPool.AUTHORS.lease()) {
+            given()
+                    .spec(request())
+                    .header("Content-Type", "application/json")
+                    .body(updatedAuthorPayload)  // Attach the updated author payload
+            .when()
+                    .put("/api/v1/Authors/" + author.id())
+            .then()
+                    .assertThat()
+                    .statusCode(200)  // Assert that the status code is 200 OK
+                    .body("firstName", equalTo("Updated"))  // Assert that the first name has been updated
+                    .body("lastName", equalTo("Doe"));  // Assert that the last name has been updated
+        }
     }
     @Test
+    @ResourceLock("Authors")
     public void testDeleteAuthorByValidId() {
-        // Valid Author ID
-        int authorId = 1;
 
         // Send DELETE request to delete the author and validate the response
-        given()
-                .spec(request)
-                .header("Content-Type", "application/json")
-        .when()
-                .delete("/api/v1/Authors/" + authorId)
-        .then()
-                .assertThat()
-                .statusCode(200)  // Assert that the status code is 200 OK
-                .body(equalTo(""));  // Assert that the response body is empty (assuming successful deletion returns an empty body)
+        try (EntityPool.Lease<Author> author = EntityPool.AUTHORS.lease()) {
+            author.consume();  // Deleted below, so not handed back to the pool
+            given()
+                    .spec(request())
+                    .header("Content-Type", "application/json")
+            .when()
+                    .delete("/api/v1/Authors/" + author.id())
+            .then()
+                    .assertThat()
+                    .statusCode(200)  // Assert that the status code is 200 OK
+                    .body(equalTo(""));  // Assert that the response body is empty (assuming successful deletion returns an empty body)
+        }
         // .log().all();  // Optionally log the response for debugging
     }
     @Test
+    @ResourceLock("Authors")
     public void testFetchAuthorByInvalidId() {
         // Invalid Author ID
         String invalidAuthorId = "abc";
 
         // Send GET request to fetch author by invalid ID and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
         .when()
                 .get("/api/v1/Authors/" + invalidAuthorId)
@@ -129,6 +152,7 @@ public class AuthorsTests {
                 .statusCode(400);  // Assert that the status code is 400 Bad Request
     }
     @Test
+    @ResourceLock(value = "Authors", mode = WRITE)
     public void testCreateAuthorWithMissingFields() {
 
         // Payload for creating an author with missing firstName
@@ -139,7 +163,7 @@ public class AuthorsTests {
 
         // Send POST request to create an author and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
                 .body(authorPayload)  // Attach the payload with missing fields
         .when()
@@ -151,6 +175,7 @@ public class AuthorsTests {
         // .log().all();  // Optionally log the response for debugging
     }
     @Test
+    @ResourceLock(value = "Authors", mode = WRITE)
     public void testCreateAuthorWithInvalidId() {
 
         // Payload for creating an author with invalid idBook
@@ -162,7 +187,7 @@ public class AuthorsTests {
 
         // Send POST request to create an author and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
                 .body(authorPayload)  // Attach the payload with invalid idBook
         .when()
@@ -172,22 +197,26 @@ public class AuthorsTests {
                 .statusCode(400);  // Assert that the status code is 400 Bad Request
     }
     @Test
+    @ResourceLock("Authors")
     public void testUpdateAuthorWithEmptyPayload() {
 
 
         // Send PUT request to update author with an empty payload and validate the response
-        given()
-                .spec(request)
+        try (EntityPool.Lease<Author> author = EntityPool.AUTHORS.lease()) {
+            given()
+                    .spec(request())
 
-        .when()
-                .put("/api/v1/Authors/1")
-        .then()
-                .assertThat()
-                .statusCode(415) ; // Assert that the status code is 415 Unsupported Media Type
+            .when()
+                    .put("/api/v1/Authors/" + author.id())
+            .then()
+                    .assertThat()
+                    .statusCode(415) ; // Assert that the status code is 415 Unsupported Media Type
+        }
 
         // .log().all();  // Optionally log the response for debugging
     }
     @Test
+    @ResourceLock("Authors")
     public void testUpdateAuthorWithInvalidData() {
 
         // Payload with invalid data type for firstName
@@ -197,22 +226,25 @@ public class AuthorsTests {
                 "}";
 
         // Send PUT request to update the author and validate the response
-        given()
-                .spec(request)
-                .header("Content-Type", "application/json")
-                .body(invalidPayload)  // Attach the payload with invalid data type
-        .when()
-                .put("/api/v1/Authors/1")
-        .then()
-                .assertThat()
-                .statusCode(400) ; // Assert that the status code is 400 Bad Request
+        try (EntityPool.Lease<Author> author = EntityPool.AUTHORS.lease()) {
+            given()
+                    .spec(request())
+                    .header("Content-Type", "application/json")
+                    .body(invalidPayload)  // Attach the payload with invalid data type
+            .when()
+                    .put("/api/v1/Authors/" + author.id())
+            .then()
+                    .assertThat()
+                    .statusCode(400) ; // Assert that the status code is 400 Bad Request
+        }
         // .log().all();  // Optionally log the response for debugging
     }
     @Test
+    @ResourceLock(value = "Authors", mode = WRITE)
     public void testDeleteAuthorWithInvalidId() {
         // Send DELETE request to delete an author with an invalid ID and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
         .when()
                 .delete("/api/v1/Authors/9999")  // Invalid author ID
@@ -222,10 +254,11 @@ public class AuthorsTests {
         // .log().all();  // Optionally log the response for debugging
     }
     @Test
+    @ResourceLock("Authors")
     public void testFetchAuthorsWithQueryParams() {
         // Send GET request with query parameters and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
                 .queryParam("lastName", "Doe")  // Query parameter for last name
         .when()
@@ -233,15 +266,16 @@ public class AuthorsTests {
         .then()
                 .assertThat()
                 .statusCode(200)  // Assert that the status code is 200 OK
-                .body("lastName", everyItem(equalTo("Doe")));  // Assert that all returned authors have last name "Doe"
+                .body(json().every("lastName", equalTo("Doe")));  // Assert that all returned authors have last name "Doe"
         // .log().all();  // Optionally log the response for debugging
     }
     @Test
+    @ResourceLock("Authors")
     public void testFetchAuthorsWithUnsupportedMediaType() {
 
         // Send GET request with unsupported media type (application/xml) and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Accept", "application/xml")  // Unsupported media type
         .when()
                 .get("/api/v1/Authors")  // Endpoint to fetch authors
@@ -1,47 +1,62 @@
 package FakeRestApi;
 
-import io.restassured.specification.RequestSpecification;
-import org.testng.annotations.BeforeClass;
+import FakeRestApi.load.LoadScenario;
+import FakeRestApi.model.Book;
+import FakeRestApi.support.BaseApiTest;
+import FakeRestApi.support.EntityPool;
+import FakeRestApi.support.ResourceLock;
 import org.testng.annotations.Test;
 
 import java.util.HashMap;
 
+import static FakeRestApi.support.JsonBody.json;
+import static FakeRestApi.support.ResourceLock.Mode.WRITE;
 import static io.restassured.RestAssured.*;
 import static io.restassured.matcher.ResponseAwareMatcher.*;
 import static org.hamcrest.Matchers.*;
-public class BooksTests {
-    RequestSpecification request;
-    @BeforeClass
-    public void setup() {
-        request = given()
-                .log().all()
-                .baseUri("https://fakerestapi.azurewebsites.net");
-    }
+public class BooksTests extends BaseApiTest {
     @Test
+    @ResourceLock("Books")
+    @LoadScenario
     public void testFetchAllBooks() {
 
         // Send GET request to fetch all books and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
         .when()
                 .get("/api/v1/Books")  // Endpoint to fetch all books
         .then()
                 .assertThat()
                 .statusCode(200)  // Assert that the status code is 200 OK
-                .body("size()", greaterThan(0))  // Assert that the list of books is not empty
-                .body("[0].id", notNullValue())  // Optionally, check that the first book has a valid ID
-                .body("[0].title", notNullValue());  // Optionally, check that the first book has a valid title
+                .body(json()
+                        .size(greaterThan(0))  // Assert that the list of books is not empty
+                        .path("[0].id", notNullValue())  // Optionally, check that the first book has a valid ID
+                        .path("[0].title", notNullValue()));  // Optionally, check that the first book has a valid title
         // .log().all();  // Optionally log the response for debugging
     }
     @Test
+    @ResourceLock("Books")
+    public void testFetchAllBooksStreamed() {
+        // Check every book while the list is still arriving, without buffering the body
+        json()
+                .size(greaterThan(0))  // Assert that the list of books is not empty
+                .every("id", notNullValue())  // Assert that every book has an ID
+                .every("title", notNullValue())  // Assert that every book has a title
+                .every("description", notNullValue())  // Assert that every book has a description
+                .every("pageCount", greaterThanOrEqualTo(0))  // Assert that no book has a negative page count
+                .assertOn(async().stream("/api/v1/Books").join());
+    }
+    @Test
+    @ResourceLock("Books")
+    @LoadScenario(weight = 3)
     public void testFetchBookByValidId() {
         // Valid Book ID
         int validBookId = 1;
 
         // Send GET request to fetch the book by valid ID and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
         .when()
                 .get("/api/v1/Books/" + validBookId)  // Endpoint to fetch book by ID
@@ -55,14 +70,16 @@ public class BooksTests {
         // .log().all();  // Optionally log the response for debugging
     }
     @Test
+    @ResourceLock(value = "Books", mode = WRITE)
+    @LoadScenario(weight = 2)
     public void testCreateNewBook() {
         // Valid payload for creating a new book
-        String newBookPayload = "{ \"title\": \"New Book Title\", \"author\": \"John Doe\"}";
+        Book newBookPayload = Book.titled("New Book Title");
 
         // Send POST request to create a new book and validate the response
         given()
 
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
                 .body(newBookPayload)  // Valid JSON payload
         .when()
@@ -70,55 +87,55 @@ public class BooksTests {
         .then()
                 .assertThat()
                 .statusCode(200)  // Assert that the status code is 200 OK
-                .body("id", notNullValue())  // Assert that the new book has a valid ID
-        .log().all();  // Optionally log the response for debugging
+                .body("id", notNullValue());  // Assert that the new book has a valid ID
     }
     @Test
+    @ResourceLock("Books")
+    @LoadScenario
     public void testUpdateBookByValidId() {
         // Payload to update book title
-        String updateBookPayload = "{\n" +
-                "            \"title\": \"Updated Book Title\"\n" +
-                "        }";
-
-        // Valid Book ID
-        int validBookId = 4;
+        Book updateBookPayload = Book.titled("Updated Book Title");
 
         // Send PUT request to update the book by valid ID and validate the response
-        given()
-                .spec(request)
-                .header("Content-Type", "application/json")
-                .body(updateBookPayload)  // Valid JSON payload to update book title
-        .when()
-                .put("/api/v1/Books/" + validBookId)  // Endpoint to update book by ID
-        .then()
-                .assertThat()
-                .statusCode(200)  // Assert that the status code is 200 OK
-        .log().all();  // Optionally log the response for debugging
+        try (EntityPool.Lease<Book> book = EntityPool.BOOKS.lease()) {
+            given()
+                    .spec(request())
+                    .header("Content-Type", "application/json")
+                    .body(updateBookPayload)  // Valid JSON payload to update book title
+            .when()
+                    .put("/api/v1/Books/" + book.id())  // Endpoint to update book by ID
+            .then()
+                    .assertThat()
+                    .statusCode(200);  // Assert that the status code is 200 OK
+        }
     }
     @Test
+    @ResourceLock("Books")
     public void testDeleteBookByValidId() {
-        // Valid Book ID to delete
-        int validBookId = 15;
 
         // Send DELETE request to delete the book by valid ID and validate the response
-        given()
-                .spec(request)
-                .header("Content-Type", "application/json")
-        .when()
-                .delete("/api/v1/Books/" + validBookId)  // Endpoint to delete book by ID
-        .then()
-                .assertThat()
-                .statusCode(200) ; // Assert that the status code is 200 OK
+        try (EntityPool.Lease<Book> book = EntityPool.BOOKS.lease()) {
+            book.consume();  // Deleted below, so not handed back to the pool
+            given()
+                    .spec(request())
+                    .header("Content-Type", "application/json")
+            .when()
+                    .delete("/api/v1/Books/" + book.id())  // Endpoint to delete book by ID
+            .then()
+                    .assertThat()
+                    .statusCode(200) ; // Assert that the status code is 200 OK
+        }
         // .log().all();  // Optionally log the response for debugging
     }
     @Test
+    @ResourceLock("Books")
     public void testFetchBookByInvalidId() {
         // Invalid Book ID to test
         String invalidBookId = "abc";
 
         // Send GET request to fetch book by invalid ID and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
         .when()
                 .get("/api/v1/Books/" + invalidBookId)  // Endpoint to fetch book by invalid ID
@@ -128,13 +145,14 @@ public class BooksTests {
         // .log().all();  // Optionally log the response for debugging
     }
     @Test
+    @ResourceLock(value = "Books", mode = WRITE)
     public void testCreateBookWithMissingFields() {
         // Payload with missing title
         String payload = "{ \"author\": \"John Doe\", \"publishedDate\": \"2024-09-01T00:00:00.000Z\" }";
 
         // Send POST request to create a book with missing fields and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
                 .body(payload)  // Attach the payload
         .when()
@@ -146,6 +164,7 @@ public class BooksTests {
         // .log().all();  // Optionally log the response for debugging
     }
     @Test
+    @ResourceLock(value = "Books", mode = WRITE)
     public void testCreateBookWithInvalidDate() {
 
         // Payload with invalid date format
@@ -153,7 +172,7 @@ public class BooksTests {
 
         // Send POST request to create a book with invalid date and validate the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json")
                 .body(payload)  // Attach the payload
         .when()
@@ -165,38 +184,44 @@ public class BooksTests {
         // .log().all();  // Optionally log the response for debugging
     }
     @Test
+    @ResourceLock("Books")
     public void updateBookWithEmptyPayload() {
 
         // Send PUT request with empty payload and verify the response body and status code
-        given()
-                .spec(request)
-        .when()
-                .put("/api/v1/Books/1")                  // API endpoint to update book with ID 1
-        .then()
-                .statusCode(415)                  // Verify status code is 415
-                .log().all();
+        try (EntityPool.Lease<Book> book = EntityPool.BOOKS.lease()) {
+            given()
+                    .spec(request())
+            .when()
+                    .put("/api/v1/Books/" + book.id())                  // API endpoint to update book leased from the pool
+            .then()
+                    .statusCode(415);                  // Verify status code is 415
+        }
     }
     @Test
+    @ResourceLock("Books")
     public void updateBookWithInvalidData() {
         // Payload with invalid data type for "title" (number instead of string)
         String invalidPayload = "{ \"title\": 1234, \"author\": \"John Doe\", \"publishedDate\": \"2024-09-01T00:00:00.000Z\" }";
 
         // Send PUT request with invalid payload and verify the response body and status code
-        given()
-                .spec(request)
-                .contentType("application/json")  // Set the content type to JSON
-                .body(invalidPayload)             // Payload with invalid data
-        .when()
-                .put("/api/v1/Books/1")                  // API endpoint to update book with ID 1
-        .then()
-                .statusCode(400);               // Verify status code is 400 (Bad Request)
+        try (EntityPool.Lease<Book> book = EntityPool.BOOKS.lease()) {
+            given()
+                    .spec(request())
+                    .contentType("application/json")  // Set the content type to JSON
+                    .body(invalidPayload)             // Payload with invalid data
+            .when()
+                    .put("/api/v1/Books/" + book.id())                  // API endpoint to update book leased from the pool
+            .then()
+                    .statusCode(400);               // Verify status code is 400 (Bad Request)
+        }
     }
     @Test
+    @ResourceLock(value = "Books", mode = WRITE)
     public void deleteBookWithInvalidId() {
 
         // Send DELETE request to an invalid book ID and verify the response body and status code
         given()
-                .spec(request)
+                .spec(request())
                 .contentType("application/json")  // Set the content type to JSON
         .when()
                 .delete("/api/v1/Books/9999")     // DELETE request with invalid book ID
@@ -205,13 +230,14 @@ public class BooksTests {
                 .body("message", equalTo("Book not found"));  // Verify message in response body
     }
     @Test
+    @ResourceLock(value = "Books", mode = WRITE)
     public void createBookWithUnauthorizedUser() {
         // Sample payload for creating a book
         String payload = "{ \"title\": \"New Book Title\", \"author\": \"John Doe\", \"publishedDate\": \"2024-09-01T00:00:00.000Z\" }";
 
         // Send POST request with unauthorized token and verify the response body and status code
         given()
-                .spec(request)
+                .spec(request())
                 .contentType("application/json")  // Set the content type to JSON
                 .header("Authorization", "Bearer invalid_token") // Set the unauthorized token
                 .body(payload)                    // Attach the valid payload
@@ -1,98 +1,105 @@
 package FakeRestApi;
 
-import io.restassured.specification.RequestSpecification;
-import org.testng.annotations.BeforeClass;
+import FakeRestApi.load.LoadScenario;
+import FakeRestApi.model.User;
+import FakeRestApi.support.BaseApiTest;
+import FakeRestApi.support.EntityPool;
+import FakeRestApi.support.ResourceLock;
 import org.testng.annotations.Test;
 
 import java.util.HashMap;
 
+import static FakeRestApi.support.JsonBody.json;
+import static FakeRestApi.support.ResourceLock.Mode.WRITE;
 import static io.restassured.RestAssured.*;
 import static io.restassured.matcher.ResponseAwareMatcher.*;
 import static org.hamcrest.Matchers.*;
-public class UsersTests {
-    RequestSpecification request;
-    @BeforeClass
-    public void setup() {
-        request = given()
-                .log().all()
-                .baseUri("https://fakerestapi.azurewebsites.net");
-    }
+public class UsersTests extends BaseApiTest {
     @Test
+    @ResourceLock("Users")
+    @LoadScenario
     public void fetchAllUsers() {
 
         // Send GET request to fetch all users and verify the response
         given()
-                .spec(request)
+                .spec(request())
         .when()
                 .get("/api/v1/Users") // GET request to retrieve all users
         .then()
                 .statusCode(200) // Verify status code is 200 OK
-                .body("size()", greaterThan(0)); // Verify the list is not empty
+                .body(json().size(greaterThan(0))); // Verify the list is not empty
     }
     @Test
+    @ResourceLock("Users")
+    @LoadScenario(weight = 3)
     public void fetchUserById() {
 
         // Send GET request to fetch user by valid ID and verify the response
         given()
-                .spec(request)
+                .spec(request())
         .when()
                 .get("/api/v1/Users/1") // GET request to retrieve user with ID 1
         .then()
                 .statusCode(200) // Verify status code is 200 OK
                 .body("id", equalTo(1))
-                .body("userName", notNullValue())// Verify that the user ID is 1
-                .log().all();
+                .body("userName", notNullValue());// Verify that the user ID is 1
     }
     @Test
+    @ResourceLock(value = "Users", mode = WRITE)
+    @LoadScenario(weight = 2)
     public void createNewUser() {
 
         // Define the payload for creating a new user
-        String requestBody = "{ \"userName\": \"John Doe\", \"email\": \"john.doe@example.com\", \"password\": \"password123\" }";
+        User requestBody = User.named("John Doe", "password123");
 
         // Send POST request to create a new user and verify the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json") // Set the content type to JSON
                 .body(requestBody) // Set the request body
         .when()
                 .post("/api/v1/Users") // POST request to create a new user
         .then()
                 .statusCode(200)
-                .body("userName", equalTo("John Doe"))// Verify status code is 200 Created
-                .log().all();
+                .body("userName", equalTo("John Doe"));// Verify status code is 200 Created
     }
     @Test
+    @ResourceLock("Users")
+    @LoadScenario
     public void updateUserById() {
 
         // Define the payload for updating the user
-        String requestBody = "{ \"userName\": \"John Doe Updated\", \"email\": \"john.doe.updated@example.com\" }";
+        User requestBody = User.named("John Doe Updated", null);
 
         // Send PUT request to update the user and verify the response
-        given()
-                .spec(request)
-                .header("Content-Type", "application/json") // Set the content type to JSON
-                .body(requestBody) // Set the request body
-        .when()
-                .put("/api/v1/Users/1") // PUT request to update the user with ID 1
-        .then()
-                .statusCode(200) // Verify status code is 200 OK
-                .body("userName", equalTo("John Doe Updated")); // Verify the name in the response
+        try (EntityPool.Lease<User> user = EntityPool.USERS.lease()) {
+            given()
+                    .spec(request())
+                    .header("Content-Type", "application/json") // Set the content type to JSON
+                    .body(requestBody) // Set the request body
+            .when()
+                    .put("/api/v1/Users/" + user.id()) // PUT request to update the user leased from the pool
+            .then()
+                    .statusCode(200) // Verify status code is 200 OK
+                    .body("userName", equalTo("John Doe Updated")); // Verify the name in the response
+        }
     }
     @Test
+    @ResourceLock("Users")
     public void fetchUserByInvalidId() {
 
         // Send GET request to fetch user by invalid ID and verify the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json") // Set the content type to JSON
         .when()
                 .get("/api/v1/Users/abc") // GET request with invalid ID 'abc'
         .then()
                 .statusCode(400)
-                .log().all()
                 .body("title",equalTo("One or more validation errors occurred."));
     }
     @Test
+    @ResourceLock(value = "Users", mode = WRITE)
     public void createUserWithMissingPassword() {
 
         // JSON payload with missing email field
@@ -100,58 +107,61 @@ public class UsersTests {
 
         // Send POST request to create user with missing email and verify the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json") // Set the content type to JSON
                 .body(requestBody) // Provide the payload with missing password
         .when()
                 .post("/api/v1/Users") // POST request to create user
         .then()
                 .statusCode(400)
-                .log().all()
                 .body("error", equalTo("Bad Request")); // Optionally, verify error message (adjust based on actual response)
     }
     @Test
+    @ResourceLock("Users")
     public void updateUserWithEmptyPayload() {
 
         // Send PUT request to update user with empty payload and verify the response
-        given()
-                .spec(request)
-        .when()
-                .put("/api/v1/Users/1") // PUT request to update user with ID 1
-        .then()
-                .statusCode(415)
-                .log().all()
-                .body("title", equalTo("Unsupported Media Type"));
+        try (EntityPool.Lease<User> user = EntityPool.USERS.lease()) {
+            given()
+                    .spec(request())
+            .when()
+                    .put("/api/v1/Users/" + user.id()) // PUT request to update user leased from the pool
+            .then()
+                    .statusCode(415)
+                    .body("title", equalTo("Unsupported Media Type"));
+        }
     }
     @Test
+    @ResourceLock("Users")
     public void updateUserWithInvalidData() {
         // Invalid JSON payload (userName is of incorrect data type)
         String requestBody = "{ \"userName\": 1234 }";
 
         // Send PUT request to update user with invalid data and verify the response
-        given()
-                .spec(request)
-                .header("Content-Type", "application/json") // Set the content type to JSON
-                .body(requestBody) // Provide the invalid payload
-        .when()
-                .put("/api/v1/Users/1") // PUT request to update user with ID 1
-        .then()
-                .statusCode(400)
-                .log().all()
-                .body("title", equalTo("One or more validation errors occurred.")); // Optionally verify the error message
+        try (EntityPool.Lease<User> user = EntityPool.USERS.lease()) {
+            given()
+                    .spec(request())
+                    .header("Content-Type", "application/json") // Set the content type to JSON
+                    .body(requestBody) // Provide the invalid payload
+            .when()
+                    .put("/api/v1/Users/" + user.id()) // PUT request to update user leased from the pool
+            .then()
+                    .statusCode(400)
+                    .body("title", equalTo("One or more validation errors occurred.")); // Optionally verify the error message
+        }
     }
     @Test
+    @ResourceLock(value = "Users", mode = WRITE)
     public void deleteUserWithInvalidId() {
 
         // Send DELETE request with an invalid user ID and verify the response
         given()
-                .spec(request)
+                .spec(request())
                 .header("Content-Type", "application/json") // Set the content type to JSON
         .when()
                 .delete("/api/v1/Users/9999") // DELETE request for a non-existent user ID
         .then()
                 .statusCode(404)
-                .log().all()
                 .body("error", equalTo("Not Found")); // Optionally verify the error message
     }
 
@@ -0,0 +1,99 @@
+package FakeRestApi.cases;
+
+import FakeRestApi.support.JsonBody;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.CustomTypeSafeMatcher;
+import org.hamcrest.Matcher;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+
+// One line of a case file: a request and what its response must look like.
+//
+//   {"name": "fetch book 1", "method": "GET", "path": "/api/v1/Books/1",
+//    "query": {"date": "2024-09-15"}, "headers": {"Accept": "application/json"},
+//    "body": {"id": 1}, "status": 200,
+//    "expect": {"id": 1, "title": {"notNull": true}, "[*].idBook": 1, "size()": {"greaterThan": 0}}}
+//
+// "body" is sent as JSON, or as-is when it is a string, so malformed payloads can be written down
+// too. Keys of "expect" are JsonBody paths and values are compared with equalTo, except for the
+// {"notNull": true}, {"greaterThan": n}, {"lessThan": n} and {"contains": "text"} checks; a path
+// with [*] must hold for every element.
+public record JsonlCase(String source, int line, String name, String method, String path, Map<String, String> query,
+                        Map<String, String> headers, String body, int status, JsonBody expectations) {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static JsonlCase parse(String source, int line, String json) {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(source + ":" + line + " is not JSON: " + e.getMessage(), e);
+        }
+        String method = node.path("method").asText("GET").toUpperCase();
+        String path = node.path("path").asText(null);
+        if (path == null || !node.path("status").isInt()) {
+            throw new IllegalArgumentException(source + ":" + line + " needs a \"path\" and an integer \"status\"");
+        }
+        JsonNode body = node.get("body");
+        JsonBody expectations = null;
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.path("expect").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> check = it.next();
+            expectations = expectations == null ? JsonBody.json() : expectations;
+            Matcher<?> matcher = matcher(check.getValue());
+            if (check.getKey().contains("[*]")) {
+                expectations.every(check.getKey(), matcher);
+            } else {
+                expectations.path(check.getKey(), matcher);
+            }
+        }
+        return new JsonlCase(source, line, node.path("name").asText(method + " " + path), method, path,
+                strings(node.path("query")), strings(node.path("headers")),
+                body == null || body.isNull() ? null : body.isTextual() ? body.asText() : body.toString(),
+                node.get("status").asInt(), expectations);
+    }
+
+    private static Matcher<?> matcher(JsonNode expected) {
+        if (expected.isObject() && expected.size() == 1) {
+            Map.Entry<String, JsonNode> check = expected.fields().next();
+            JsonNode operand = check.getValue();
+            Matcher<?> matcher = switch (check.getKey()) {
+                case "notNull" -> operand.asBoolean() ? notNullValue() : nullValue();
+                case "greaterThan" -> compared("greater than", operand.asDouble(), 1);
+                case "lessThan" -> compared("less than", operand.asDouble(), -1);
+                case "contains" -> containsString(operand.asText());
+                default -> null;
+            };
+            if (matcher != null) {
+                return matcher;
+            }
+        }
+        Object value = MAPPER.convertValue(expected, Object.class);
+        return equalTo(value instanceof Float || value instanceof Double ? ((Number) value).doubleValue() : value);
+    }
+
+    // Compares any Number by value; greaterThan(Comparable) fails on an Integer against a Double
+    private static Matcher<Number> compared(String relation, double operand, int sign) {
+        return new CustomTypeSafeMatcher<>("a number " + relation + " " + operand) {
+            @Override
+            protected boolean matchesSafely(Number actual) {
+                return Double.compare(actual.doubleValue(), operand) == sign;
+            }
+        };
+    }
+
+    private static Map<String, String> strings(JsonNode object) {
+        Map<String, String> values = new LinkedHashMap<>();
+        object.fields().forEachRemaining(field -> values.put(field.getKey(), field.getValue().asText()));
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return source + ":" + line + " " + name;
+    }
+}
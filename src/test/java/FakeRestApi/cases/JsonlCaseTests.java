@@ -0,0 +1,151 @@
+package FakeRestApi.cases;
+
+import FakeRestApi.support.BaseApiTest;
+import FakeRestApi.support.ResourceLock;
+import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.RequestSpecification;
+import org.testng.ITest;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static FakeRestApi.support.ResourceLock.Mode.READ;
+import static FakeRestApi.support.ResourceLock.Mode.WRITE;
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.fail;
+
+// Data-driven tests: one instance per case file (see JsonlCases), and one test invocation per
+// batch of -Dfakerestapi.cases.batchSize cases (64), read from the file only when TestNG gets
+// to it, split into its GETs and its other cases. The cases of a batch run concurrently on
+// -Dfakerestapi.cases.threads threads (8), and the invocation fails with every failed case of the
+// batch listed.
+public class JsonlCaseTests extends BaseApiTest implements ITest {
+    private static final int BATCH_SIZE = Integer.getInteger("fakerestapi.cases.batchSize", 64);
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Integer.getInteger("fakerestapi.cases.threads", 8), Thread.ofPlatform().daemon().name("jsonl-cases-", 1).factory());
+
+    private final Path file;
+
+    public record Batch(String source, int firstLine, int lastLine, List<JsonlCase> cases)
+            implements ResourceLock.ModeProvider {
+        static Batch of(List<JsonlCase> cases) {
+            return new Batch(cases.getFirst().source(), cases.getFirst().line(), cases.getLast().line(), cases);
+        }
+
+        // Batches of GETs share the resources with the other tests; any other method runs alone
+        @Override
+        public ResourceLock.Mode lockMode() {
+            return cases.stream().allMatch(jsonlCase -> jsonlCase.method().equals("GET")) ? READ : WRITE;
+        }
+
+        @Override
+        public String toString() {
+            return source + " lines " + firstLine + "-" + lastLine + (lockMode() == READ ? " (reads)" : " (writes)");
+        }
+    }
+
+    public JsonlCaseTests(Path file) {
+        this.file = file;
+    }
+
+    @Factory
+    public static Object[] caseFiles() {
+        return JsonlCases.files().stream().map(JsonlCaseTests::new).toArray();
+    }
+
+    @Override
+    public String getTestName() {
+        return file.getFileName().toString();
+    }
+
+    // Each batch read from the file is split into its GETs and its other cases, so the reads are
+    // not held up behind the writes that come with them
+    @DataProvider
+    public Iterator<Object[]> batches() {
+        Iterator<List<JsonlCase>> batches = JsonlCases.batches(file, BATCH_SIZE);
+        Deque<Batch> split = new ArrayDeque<>(2);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !split.isEmpty() || batches.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                if (split.isEmpty()) {
+                    Map<Boolean, List<JsonlCase>> byMethod = batches.next().stream()
+                            .collect(Collectors.partitioningBy(jsonlCase -> jsonlCase.method().equals("GET")));
+                    for (List<JsonlCase> cases : List.of(byMethod.get(true), byMethod.get(false))) {
+                        if (!cases.isEmpty()) {
+                            split.add(Batch.of(cases));
+                        }
+                    }
+                }
+                return new Object[]{split.poll()};
+            }
+        };
+    }
+
+    // Case files may create, update or delete anything, so in parallel suites a batch that does
+    // runs alone (see Batch.lockMode())
+    @Test(dataProvider = "batches")
+    @ResourceLock({"Activities", "Authors", "Books", "CoverPhotos", "Users"})
+    public void casesPass(Batch batch) throws InterruptedException {
+        List<Future<String>> outcomes = new ArrayList<>(batch.cases().size());
+        for (JsonlCase jsonlCase : batch.cases()) {
+            outcomes.add(WORKERS.submit(() -> run(jsonlCase)));
+        }
+        List<String> failures = new ArrayList<>();
+        for (Future<String> outcome : outcomes) {
+            try {
+                String failure = outcome.get();
+                if (failure != null) {
+                    failures.add(failure);
+                }
+            } catch (ExecutionException e) {
+                failures.add(e.getCause().toString());
+            }
+        }
+        if (!failures.isEmpty()) {
+            fail(failures.size() + " of " + batch.cases().size() + " cases failed in " + batch + ":\n"
+                    + String.join("\n", failures));
+        }
+    }
+
+    // Null when the case passed, otherwise what went wrong
+    private String run(JsonlCase jsonlCase) {
+        try {
+            RequestSpecification spec = given().spec(request())
+                    .headers(jsonlCase.headers())
+                    .queryParams(jsonlCase.query());
+            if (jsonlCase.body() != null) {
+                if (jsonlCase.headers().keySet().stream().noneMatch("Content-Type"::equalsIgnoreCase)) {
+                    spec.contentType("application/json");
+                }
+                spec.body(jsonlCase.body());
+            }
+            ValidatableResponse response = spec.request(jsonlCase.method(), jsonlCase.path())
+                    .then()
+                    .statusCode(jsonlCase.status());
+            if (jsonlCase.expectations() != null) {
+                response.body(jsonlCase.expectations());
+            }
+            return null;
+        } catch (AssertionError | RuntimeException e) {
+            return "  " + jsonlCase + ": " + String.valueOf(e.getMessage()).strip().replace("\n", "\n    ");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package FakeRestApi.cases;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+// Reads case files lazily: a batch is parsed only when the data provider asks for it and the
+// reader never holds more than one batch, so a file of any length costs the same heap and no
+// startup time. Case files are the *.jsonl files in the directory named by -Dfakerestapi.cases,
+// or in cases/ on the test classpath (src/test/resources/cases).
+public final class JsonlCases {
+    public static final String PROPERTY = "fakerestapi.cases";
+
+    private JsonlCases() {
+    }
+
+    public static List<Path> files() {
+        Path directory;
+        String configured = System.getProperty(PROPERTY);
+        if (configured != null) {
+            directory = Path.of(configured);
+        } else {
+            URL resource = JsonlCases.class.getClassLoader().getResource("cases");
+            if (resource == null || !resource.getProtocol().equals("file")) {
+                return List.of();
+            }
+            try {
+                directory = Path.of(resource.toURI());
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        if (Files.isRegularFile(directory)) {
+            return List.of(directory);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jsonl")).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list case files in " + directory, e);
+        }
+    }
+
+    // Batches of up to batchSize cases, in file order; blank lines are skipped. The file is closed
+    // once the last batch has been read.
+    public static Iterator<List<JsonlCase>> batches(Path file, int batchSize) {
+        BufferedReader reader;
+        try {
+            reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open " + file, e);
+        }
+        String source = file.getFileName().toString();
+        return new Iterator<>() {
+            private int line;
+            private boolean done;
+            private List<JsonlCase> next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && !done) {
+                    next = read();
+                    done = next == null;
+                }
+                return next != null;
+            }
+
+            @Override
+            public List<JsonlCase> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<JsonlCase> batch = next;
+                next = null;
+                return batch;
+            }
+
+            private List<JsonlCase> read() {
+                List<JsonlCase> batch = new ArrayList<>(batchSize);
+                try {
+                    String text;
+                    while (batch.size() < batchSize && (text = reader.readLine()) != null) {
+                        line++;
+                        if (!text.isBlank()) {
+                            batch.add(JsonlCase.parse(source, line, text));
+                        }
+                    }
+                    if (batch.isEmpty()) {
+                        reader.close();
+                        return null;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read " + file, e);
+                }
+                return batch;
+            }
+        };
+    }
+}
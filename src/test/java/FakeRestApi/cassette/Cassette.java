@@ -0,0 +1,228 @@
+package FakeRestApi.cassette;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// A file of recorded exchanges, memory-mapped for replay. Layout, big-endian:
+//
+//   header  int magic, int version, int entry count, long index offset
+//   entries one after another, see Entry
+//   index   (long key hash, long entry offset) per entry, sorted by hash, then by offset
+//
+// Opening only maps the file and reads the header; a lookup binary-searches the index for the
+// key hash and decodes just the candidate entries, so load time does not grow with the number
+// of entries. Entries with the same key are kept in recording order.
+public final class Cassette implements AutoCloseable {
+    private static final int MAGIC = 0x46524341; // "FRCA"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+    private static final int INDEX_ENTRY_BYTES = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final long indexOffset;
+    private final Map<Key, long[]> offsets = new ConcurrentHashMap<>();
+
+    // What a request is looked up by; the host is left out so a cassette recorded against one
+    // deployment replays under any base URI
+    public record Key(String method, String path, String query, long bodyHash) {
+        long hash() {
+            long hash = Hashing.fnv1a(Hashing.FNV_OFFSET, method);
+            hash = Hashing.fnv1a(hash, path);
+            hash = Hashing.fnv1a(hash, query);
+            return hash * Hashing.FNV_PRIME ^ bodyHash;
+        }
+    }
+
+    public record Entry(Key key, long durationNanos, String statusLine, int status, List<String[]> headers,
+                        byte[] body) {
+    }
+
+    private Cassette(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a cassette file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported cassette version " + buffer.getInt(4));
+        }
+        this.count = buffer.getInt(8);
+        this.indexOffset = buffer.getLong(12);
+    }
+
+    public static Cassette open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new Cassette(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Every entry recorded for the key, in recording order
+    public List<Entry> lookup(Key key) {
+        long[] found = offsets.computeIfAbsent(key, this::find);
+        List<Entry> entries = new ArrayList<>(found.length);
+        for (long offset : found) {
+            entries.add(read(offset));
+        }
+        return entries;
+    }
+
+    // The index-th entry for the key, wrapping around; null when nothing was recorded for it
+    public Entry lookup(Key key, int index) {
+        long[] found = offsets.computeIfAbsent(key, this::find);
+        return found.length == 0 ? null : read(found[Math.floorMod(index, found.length)]);
+    }
+
+    private long[] find(Key key) {
+        long hash = key.hash();
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compare(buffer.getLong(indexSlot(mid)), hash) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<Long> matches = new ArrayList<>();
+        for (int i = low; i < count && buffer.getLong(indexSlot(i)) == hash; i++) {
+            long offset = buffer.getLong(indexSlot(i) + 8);
+            // Equal hashes are only candidates
+            if (read(offset).key().equals(key)) {
+                matches.add(offset);
+            }
+        }
+        return matches.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private int indexSlot(int i) {
+        return Math.toIntExact(indexOffset + (long) i * INDEX_ENTRY_BYTES);
+    }
+
+    private Entry read(long offset) {
+        ByteBuffer in = buffer.duplicate().position(Math.toIntExact(offset));
+        in.getLong(); // key hash, only needed by the index
+        Key key = new Key(string(in), string(in), string(in), in.getLong());
+        long durationNanos = in.getLong();
+        String statusLine = string(in);
+        int status = in.getInt();
+        int headerCount = in.getInt();
+        List<String[]> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new String[]{string(in), string(in)});
+        }
+        byte[] body = new byte[in.getInt()];
+        in.get(body);
+        return new Entry(key, durationNanos, statusLine, status, headers, body);
+    }
+
+    private static String string(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Writes the entries to a temporary file next to the target and moves it into place
+    public static void write(Path file, List<Entry> entries) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        long[][] index = new long[entries.size()][];
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = HEADER_BYTES;
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                long hash = entry.key().hash();
+                index[i] = new long[]{hash, position};
+                position += writeFully(out, position, encode(hash, entry));
+            }
+            Arrays.sort(index, Comparator.<long[]>comparingLong(slot -> slot[0]).thenComparingLong(slot -> slot[1]));
+            ByteBuffer indexBytes = ByteBuffer.allocate(index.length * INDEX_ENTRY_BYTES);
+            for (long[] slot : index) {
+                indexBytes.putLong(slot[0]).putLong(slot[1]);
+            }
+            long indexOffset = position;
+            writeFully(out, indexOffset, indexBytes.flip());
+            writeFully(out, 0, ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC).putInt(VERSION).putInt(entries.size()).putLong(indexOffset).flip());
+            out.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ByteBuffer encode(long hash, Entry entry) {
+        List<byte[]> strings = new ArrayList<>();
+        Key key = entry.key();
+        strings.add(utf8(key.method()));
+        strings.add(utf8(key.path()));
+        strings.add(utf8(key.query()));
+        strings.add(utf8(entry.statusLine()));
+        for (String[] header : entry.headers()) {
+            strings.add(utf8(header[0]));
+            strings.add(utf8(header[1]));
+        }
+        int size = 8 + 8 + 8 + 4 + 4 + 4 + entry.body().length;
+        for (byte[] string : strings) {
+            size += 4 + string.length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(size).putLong(hash);
+        putString(out, strings.get(0));
+        putString(out, strings.get(1));
+        putString(out, strings.get(2));
+        out.putLong(key.bodyHash()).putLong(entry.durationNanos());
+        putString(out, strings.get(3));
+        out.putInt(entry.status()).putInt(entry.headers().size());
+        for (int i = 4; i < strings.size(); i++) {
+            putString(out, strings.get(i));
+        }
+        out.putInt(entry.body().length).put(entry.body());
+        return out.flip();
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer out, byte[] bytes) {
+        out.putInt(bytes.length).put(bytes);
+    }
+
+    private static int writeFully(FileChannel out, long position, ByteBuffer bytes) throws IOException {
+        int written = 0;
+        while (bytes.hasRemaining()) {
+            written += out.write(bytes, position + written);
+        }
+        return written;
+    }
+}
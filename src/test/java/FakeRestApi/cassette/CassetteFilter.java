@@ -0,0 +1,176 @@
+package FakeRestApi.cassette;
+
+import FakeRestApi.support.EndpointMetrics;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Records every exchange into a cassette, or answers every request from one, selected with
+// -Dfakerestapi.cassette=record|replay; any other value (the default is "off") leaves requests
+// alone. -Dfakerestapi.cassette.file names the file, cassettes/fakerestapi.cassette by default.
+// Recording keeps the exchanges in memory and writes the file when the suite finishes. Replay
+// never touches the network: a request that was not recorded fails the test, and a request
+// recorded several times gets its recordings back in turn.
+public final class CassetteFilter implements Filter {
+    public static final String MODE_PROPERTY = "fakerestapi.cassette";
+    public static final String FILE_PROPERTY = "fakerestapi.cassette.file";
+
+    private enum Mode {OFF, RECORD, REPLAY}
+
+    private static final Mode MODE = switch (System.getProperty(MODE_PROPERTY, "off").trim().toLowerCase()) {
+        case "record" -> Mode.RECORD;
+        case "replay" -> Mode.REPLAY;
+        default -> Mode.OFF;
+    };
+    private static final Path FILE = Path.of(System.getProperty(FILE_PROPERTY, "cassettes/fakerestapi.cassette"));
+    private static final CassetteFilter INSTANCE = new CassetteFilter();
+
+    private final Queue<Cassette.Entry> recorded = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<Cassette.Key, AtomicInteger> replayCursors = new ConcurrentHashMap<>();
+    private final EndpointMetrics recordedTimings = new EndpointMetrics();
+    private final EndpointMetrics replayedTimings = new EndpointMetrics();
+    private Cassette cassette;
+
+    private CassetteFilter() {
+    }
+
+    public static boolean enabled() {
+        return MODE != Mode.OFF;
+    }
+
+    public static boolean replaying() {
+        return MODE == Mode.REPLAY;
+    }
+
+    public static CassetteFilter instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        URI uri = URI.create(requestSpec.getURI());
+        Cassette.Key key = new Cassette.Key(requestSpec.getMethod(), nonNull(uri.getRawPath()), nonNull(uri.getRawQuery()),
+                bodyHash(requestSpec.getBody()));
+        long start = System.nanoTime();
+        if (MODE == Mode.REPLAY) {
+            int turn = replayCursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+            Cassette.Entry entry = cassette().lookup(key, turn);
+            if (entry == null) {
+                throw new IllegalStateException("No exchange recorded in " + FILE + " for " + key.method() + " "
+                        + key.path() + (key.query().isEmpty() ? "" : "?" + key.query()));
+            }
+            Response response = toResponse(entry);
+            replayedTimings.record(key.method(), key.path(), entry.status(), System.nanoTime() - start);
+            recordedTimings.record(key.method(), key.path(), entry.status(), entry.durationNanos());
+            return response;
+        }
+        Response response = ctx.next(requestSpec, responseSpec);
+        long durationNanos = System.nanoTime() - start;
+        List<String[]> headers = new ArrayList<>();
+        for (Header header : response.getHeaders()) {
+            headers.add(new String[]{header.getName(), header.getValue()});
+        }
+        recorded.add(new Cassette.Entry(key, durationNanos, response.getStatusLine(), response.getStatusCode(), headers,
+                response.asByteArray()));
+        return response;
+    }
+
+    // Writes the cassette after a recording run, or compares replayed with recorded timings after
+    // a replay; called when the suite finishes. Returns null when the cassette is off.
+    public static String finish() {
+        return switch (MODE) {
+            case OFF -> null;
+            case RECORD -> INSTANCE.save();
+            case REPLAY -> INSTANCE.replaySummary();
+        };
+    }
+
+    private synchronized String save() {
+        List<Cassette.Entry> entries = new ArrayList<>(recorded);
+        try {
+            Cassette.write(FILE, entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + FILE, e);
+        }
+        return "Cassette: recorded " + entries.size() + " exchanges to " + FILE;
+    }
+
+    private String replaySummary() {
+        StringBuilder summary = new StringBuilder("Cassette: replayed from " + FILE + "\n");
+        summary.append(String.format("%-45s %8s %14s %14s %14s %14s%n", "Endpoint", "count",
+                "recorded p50", "replayed p50", "recorded p99", "replayed p99"));
+        Map<EndpointMetrics.Endpoint, Histogram> replayed = replayedTimings.byEndpoint();
+        recordedTimings.byEndpoint().forEach((endpoint, recorded) -> {
+            Histogram replay = replayed.get(endpoint);
+            summary.append(String.format("%-45s %8d %11.2f ms %11.3f ms %11.2f ms %11.3f ms%n", endpoint,
+                    recorded.getTotalCount(), recorded.getValueAtPercentile(50) / 1000.0,
+                    replay.getValueAtPercentile(50) / 1000.0, recorded.getValueAtPercentile(99) / 1000.0,
+                    replay.getValueAtPercentile(99) / 1000.0));
+        });
+        return summary.toString();
+    }
+
+    private synchronized Cassette cassette() {
+        if (cassette == null) {
+            try {
+                cassette = Cassette.open(FILE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open cassette " + FILE
+                        + "; record one with -D" + MODE_PROPERTY + "=record", e);
+            }
+        }
+        return cassette;
+    }
+
+    private static Response toResponse(Cassette.Entry entry) {
+        List<Header> headers = new ArrayList<>(entry.headers().size());
+        String contentType = null;
+        for (String[] header : entry.headers()) {
+            headers.add(new Header(header[0], header[1]));
+            if (header[0].equalsIgnoreCase("Content-Type")) {
+                contentType = header[1];
+            }
+        }
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(entry.status())
+                .setStatusLine(entry.statusLine())
+                .setHeaders(new Headers(headers))
+                .setBody(entry.body());
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        return builder.build();
+    }
+
+    private static long bodyHash(Object body) {
+        if (body == null) {
+            return 0;
+        }
+        return Hashing.fnv1a(body instanceof byte[] bytes ? bytes : body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String nonNull(String value) {
+        return value == null ? "" : value;
+    }
+}
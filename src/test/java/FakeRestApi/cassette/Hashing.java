@@ -0,0 +1,30 @@
+package FakeRestApi.cassette;
+
+// 64-bit FNV-1a, stable across JVMs and runs, for cassette keys and request bodies.
+final class Hashing {
+    static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {
+    }
+
+    static long fnv1a(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+                hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+            }
+        }
+        // Terminator, so ("ab", "c") and ("a", "bc") hash differently
+        return (hash ^ 0xff) * FNV_PRIME;
+    }
+
+    static long fnv1a(byte[] bytes) {
+        long hash = FNV_OFFSET;
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
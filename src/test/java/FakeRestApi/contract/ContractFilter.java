@@ -0,0 +1,68 @@
+package FakeRestApi.contract;
+
+import FakeRestApi.support.EndpointMetrics;
+import FakeRestApi.support.EndpointMetrics.Endpoint;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// Validates every 200 response of an endpoint with a contract in SchemaRegistry, whatever the test
+// itself asserts, and fails the request with an AssertionError listing the violations. Enabled with
+// -Dfakerestapi.contracts=true, which the surefire configuration sets; pass it to the load runner
+// to validate under load as well, where a violation counts as a failed request.
+public final class ContractFilter implements Filter {
+    public static final String PROPERTY = "fakerestapi.contracts";
+    private static final ContractFilter INSTANCE = new ContractFilter();
+
+    private final LongAdder validated = new LongAdder();
+    private final LongAdder violated = new LongAdder();
+    private final LongAdder validationNanos = new LongAdder();
+
+    private ContractFilter() {
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    public static ContractFilter instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (response.getStatusCode() != 200) {
+            return response;
+        }
+        Endpoint endpoint = new Endpoint(requestSpec.getMethod(),
+                EndpointMetrics.template(URI.create(requestSpec.getURI()).getPath()));
+        Schema schema = SchemaRegistry.forEndpoint(endpoint);
+        if (schema == null) {
+            return response;
+        }
+        long start = System.nanoTime();
+        List<String> violations = SchemaRegistry.validate(schema, response.asByteArray());
+        validationNanos.add(System.nanoTime() - start);
+        validated.increment();
+        if (!violations.isEmpty()) {
+            violated.increment();
+            throw new AssertionError("Response of " + endpoint + " breaks its contract:\n  "
+                    + String.join("\n  ", violations));
+        }
+        return response;
+    }
+
+    public String summary() {
+        long count = validated.sum();
+        return String.format("Contracts: %d responses validated, %d violated, %.1f us per response",
+                count, violated.sum(), count == 0 ? 0.0 : validationNanos.sum() / 1000.0 / count);
+    }
+}
@@ -0,0 +1,217 @@
+package FakeRestApi.contract;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// A JSON Schema compiled into a tree of checks that run against a streaming Jackson parser, so
+// validating a response builds no tree and allocates nothing while it conforms; the JSON pointer
+// of a violation is worked out only when one is found. Supports the keywords the FakeRESTApi
+// models need (type, properties, required, additionalProperties, items, and the int32 and
+// date-time formats) and refuses any other, so a schema never silently checks less than it says.
+// date-time also accepts values without an offset, as the service serializes DateTime values of
+// unspecified kind. Immutable once compiled, and safe to share between threads.
+public final class Schema {
+    static final int MAX_VIOLATIONS = 20;
+    private static final Set<String> ANNOTATIONS = Set.of("$schema", "$id", "title", "description");
+
+    private enum Type {OBJECT, ARRAY, STRING, INTEGER, NUMBER, BOOLEAN, NULL}
+
+    private enum Format {NONE, INT32, DATE_TIME}
+
+    private final int types;
+    private final Map<String, Integer> propertyIndex;
+    private final Schema[] properties;
+    private final String[] propertyNames;
+    private final long requiredMask;
+    private final boolean additionalProperties;
+    private final Schema items;
+    private final Format format;
+
+    private Schema(int types, Map<String, Integer> propertyIndex, Schema[] properties, String[] propertyNames,
+                   long requiredMask, boolean additionalProperties, Schema items, Format format) {
+        this.types = types;
+        this.propertyIndex = propertyIndex;
+        this.properties = properties;
+        this.propertyNames = propertyNames;
+        this.requiredMask = requiredMask;
+        this.additionalProperties = additionalProperties;
+        this.items = items;
+        this.format = format;
+    }
+
+    static Schema compile(JsonNode schema, String location) {
+        int types = 0;
+        Map<String, Integer> propertyIndex = new HashMap<>();
+        List<Schema> properties = new ArrayList<>();
+        List<String> propertyNames = new ArrayList<>();
+        List<String> required = new ArrayList<>();
+        boolean additionalProperties = true;
+        Schema items = null;
+        Format format = Format.NONE;
+        for (Iterator<Map.Entry<String, JsonNode>> it = schema.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> keyword = it.next();
+            JsonNode value = keyword.getValue();
+            switch (keyword.getKey()) {
+                case "type" -> {
+                    for (JsonNode type : value.isArray() ? value : List.of(value)) {
+                        types |= 1 << Type.valueOf(type.asText().toUpperCase()).ordinal();
+                    }
+                }
+                case "properties" -> value.fields().forEachRemaining(property -> {
+                    propertyIndex.put(property.getKey(), properties.size());
+                    propertyNames.add(property.getKey());
+                    properties.add(compile(property.getValue(), location + "/properties/" + property.getKey()));
+                });
+                case "required" -> value.forEach(name -> required.add(name.asText()));
+                case "additionalProperties" -> additionalProperties = value.asBoolean();
+                case "items" -> items = compile(value, location + "/items");
+                case "format" -> format = switch (value.asText()) {
+                    case "int32" -> Format.INT32;
+                    case "date-time" -> Format.DATE_TIME;
+                    default -> throw new IllegalArgumentException(location + ": unsupported format " + value);
+                };
+                default -> {
+                    if (!ANNOTATIONS.contains(keyword.getKey())) {
+                        throw new IllegalArgumentException(location + ": unsupported keyword " + keyword.getKey());
+                    }
+                }
+            }
+        }
+        if (properties.size() > Long.SIZE) {
+            throw new IllegalArgumentException(location + ": more than " + Long.SIZE + " properties");
+        }
+        // After the loop, as "required" may come before "properties"
+        long requiredMask = 0;
+        for (String name : required) {
+            Integer index = propertyIndex.get(name);
+            if (index == null) {
+                throw new IllegalArgumentException(location + ": required property \"" + name + "\" is not declared in properties");
+            }
+            requiredMask |= 1L << index;
+        }
+        return new Schema(types == 0 ? -1 : types, propertyIndex, properties.toArray(Schema[]::new),
+                propertyNames.toArray(String[]::new), requiredMask, additionalProperties, items, format);
+    }
+
+    // An array of elements conforming to this schema, as the list endpoints return
+    Schema listOf() {
+        return new Schema(1 << Type.ARRAY.ordinal(), Map.of(), new Schema[0], new String[0], 0, true, this, Format.NONE);
+    }
+
+    // Checks the value the parser is on and leaves the parser on its last token. Violations are
+    // added as "<JSON pointer>: <what is wrong>", up to MAX_VIOLATIONS.
+    void validate(JsonParser parser, List<String> violations) throws IOException {
+        JsonToken token = parser.currentToken();
+        Type type = typeOf(parser, token);
+        if ((types & (1 << type.ordinal())) == 0
+                && !(type == Type.INTEGER && (types & (1 << Type.NUMBER.ordinal())) != 0)) {
+            violation(parser, violations, "expected " + describeTypes() + " but was " + type.name().toLowerCase());
+            parser.skipChildren();
+            return;
+        }
+        switch (type) {
+            case OBJECT -> validateObject(parser, violations);
+            case ARRAY -> {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (items == null) {
+                        parser.skipChildren();
+                    } else {
+                        items.validate(parser, violations);
+                    }
+                }
+            }
+            case INTEGER -> {
+                if (format == Format.INT32 && parser.getNumberType() != JsonParser.NumberType.INT) {
+                    violation(parser, violations, parser.getText() + " is out of the int32 range");
+                }
+            }
+            case STRING -> {
+                if (format == Format.DATE_TIME && !isDateTime(parser.getText())) {
+                    violation(parser, violations, "\"" + parser.getText() + "\" is not a date-time");
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void validateObject(JsonParser parser, List<String> violations) throws IOException {
+        long seen = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            Integer index = propertyIndex.get(name);
+            if (index != null) {
+                seen |= 1L << index;
+                properties[index].validate(parser, violations);
+            } else {
+                if (!additionalProperties) {
+                    violation(parser, violations, "unexpected property");
+                }
+                parser.skipChildren();
+            }
+        }
+        long missing = requiredMask & ~seen;
+        while (missing != 0) {
+            int index = Long.numberOfTrailingZeros(missing);
+            violation(parser, violations, "missing required property \"" + propertyNames[index] + "\"");
+            missing &= missing - 1;
+        }
+    }
+
+    private static Type typeOf(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case START_OBJECT -> Type.OBJECT;
+            case START_ARRAY -> Type.ARRAY;
+            case VALUE_STRING -> Type.STRING;
+            case VALUE_NUMBER_INT -> Type.INTEGER;
+            case VALUE_NUMBER_FLOAT -> Type.NUMBER;
+            case VALUE_TRUE, VALUE_FALSE -> Type.BOOLEAN;
+            case VALUE_NULL -> Type.NULL;
+            default -> throw new IOException("Unexpected " + token + " at " + parser.currentLocation());
+        };
+    }
+
+    private static boolean isDateTime(String text) {
+        try {
+            OffsetDateTime.parse(text);
+            return true;
+        } catch (DateTimeParseException notOffset) {
+            try {
+                LocalDateTime.parse(text);
+                return true;
+            } catch (DateTimeParseException notLocal) {
+                return false;
+            }
+        }
+    }
+
+    private String describeTypes() {
+        StringBuilder described = new StringBuilder();
+        for (Type type : Type.values()) {
+            if ((types & (1 << type.ordinal())) != 0) {
+                described.append(described.isEmpty() ? "" : " or ").append(type.name().toLowerCase());
+            }
+        }
+        return described.toString();
+    }
+
+    private static void violation(JsonParser parser, List<String> violations, String problem) {
+        if (violations.size() < MAX_VIOLATIONS) {
+            String pointer = parser.getParsingContext().pathAsPointer().toString();
+            violations.add((pointer.isEmpty() ? "/" : pointer) + ": " + problem);
+        }
+    }
+}
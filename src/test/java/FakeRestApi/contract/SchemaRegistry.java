@@ -0,0 +1,99 @@
+package FakeRestApi.contract;
+
+import FakeRestApi.support.EndpointMetrics.Endpoint;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The response contracts of the five resources, compiled once per JVM from the JSON Schemas in
+// schemas/<Model>.schema.json on the test classpath, and which of them each endpoint answers with.
+// Lookups and validation share nothing mutable, so any number of threads can validate at once.
+public final class SchemaRegistry {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Map<String, String> MODEL_OF_RESOURCE = Map.of(
+            "Activities", "Activity",
+            "Authors", "Author",
+            "Books", "Book",
+            "CoverPhotos", "CoverPhoto",
+            "Users", "User");
+    private static final Map<String, Schema> MODELS = load();
+    private static final Map<String, Schema> LISTS = lists();
+
+    private SchemaRegistry() {
+    }
+
+    // The schema of a model, e.g. "Book"
+    public static Schema model(String name) {
+        Schema schema = MODELS.get(name);
+        if (schema == null) {
+            throw new IllegalArgumentException("No schema for " + name + "; known: " + MODELS.keySet());
+        }
+        return schema;
+    }
+
+    // The schema a successful response of the endpoint conforms to, or null when it has none. The
+    // path is a template as EndpointMetrics keys it, e.g. GET /api/v1/Books/{id}.
+    public static Schema forEndpoint(Endpoint endpoint) {
+        String[] segments = endpoint.path().split("/");
+        // "", "api", "v1", resource[, ...]
+        if (segments.length < 4 || !segments[1].equals("api") || !segments[2].equals("v1")) {
+            return null;
+        }
+        String model = MODEL_OF_RESOURCE.get(segments[3]);
+        if (model == null) {
+            return null;
+        }
+        boolean read = endpoint.method().equals("GET");
+        return switch (segments.length) {
+            case 4 -> read ? LISTS.get(model) : endpoint.method().equals("POST") ? MODELS.get(model) : null;
+            case 5 -> read || endpoint.method().equals("PUT") ? MODELS.get(model) : null;
+            // /Authors/authors/books/{id} and /CoverPhotos/books/covers/{id}
+            case 7 -> read ? LISTS.get(model) : null;
+            default -> null;
+        };
+    }
+
+    // Violations of the schema by the JSON body, empty when it conforms
+    public static List<String> validate(Schema schema, byte[] body) {
+        List<String> violations = new ArrayList<>(0);
+        try (JsonParser parser = MAPPER.createParser(body)) {
+            if (parser.nextToken() == null) {
+                violations.add("/: body is empty");
+            } else {
+                schema.validate(parser, violations);
+            }
+        } catch (IOException e) {
+            violations.add("/: body is not valid JSON: " + e.getMessage());
+        }
+        return violations;
+    }
+
+    private static Map<String, Schema> load() {
+        Map<String, Schema> models = new HashMap<>();
+        for (String model : MODEL_OF_RESOURCE.values()) {
+            String resource = "schemas/" + model + ".schema.json";
+            try (InputStream in = SchemaRegistry.class.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing " + resource + " on the test classpath");
+                }
+                models.put(model, Schema.compile(MAPPER.readTree(in), resource + "#"));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + resource, e);
+            }
+        }
+        return Map.copyOf(models);
+    }
+
+    private static Map<String, Schema> lists() {
+        Map<String, Schema> lists = new HashMap<>();
+        MODELS.forEach((model, schema) -> lists.put(model, schema.listOf()));
+        return Map.copyOf(lists);
+    }
+}
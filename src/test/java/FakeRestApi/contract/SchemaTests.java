@@ -0,0 +1,39 @@
+package FakeRestApi.contract;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+public class SchemaTests {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void keywordOrderDoesNotMatter() throws IOException {
+        // Key order means nothing in a JSON object, so "required" may come before "properties"
+        Schema schema = Schema.compile(MAPPER.readTree("""
+                {"required": ["id"], "additionalProperties": false, "type": "object",
+                 "properties": {"title": {"type": ["string", "null"]}, "id": {"type": "integer", "format": "int32"}}}
+                """), "test#");
+
+        assertEquals(validate(schema, "{\"id\": 1, \"title\": null}"), List.of());
+        assertEquals(validate(schema, "{\"title\": \"Book\"}"), List.of("/: missing required property \"id\""));
+        assertEquals(validate(schema, "{\"id\": 1, \"extra\": true}"), List.of("/extra: unexpected property"));
+    }
+
+    @Test
+    public void requiredPropertiesMustBeDeclared() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> Schema.compile(MAPPER.readTree("""
+                {"required": ["id"], "properties": {"title": {"type": "string"}}}
+                """), "test#"));
+    }
+
+    private static List<String> validate(Schema schema, String body) {
+        return SchemaRegistry.validate(schema, body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,266 @@
+package FakeRestApi.fuzz;
+
+import FakeRestApi.standin.FieldType;
+import FakeRestApi.standin.Resource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Derives invalid requests from the field shapes of the five resources: each field gets values of
+// every JSON type its FieldType does not bind, string fields get oversized values, bodies lose
+// fields or are broken as JSON, ids are replaced by things that are not Int32s, and bodies go out
+// under content types the service does not read. Case i of a seed is always the same request, so
+// a run is reproduced by its seed and any single case by its index.
+final class CaseGenerator {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectMapper STRICT = new ObjectMapper().enable(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    private static final String JSON = "application/json";
+    private static final List<String> VALUES = List.of("\"abc\"", "\"\"", "\"1\"", "\"2024-13-45T00:00:00\"",
+            "0", "-1", "1.5", "2147483648", "1e3", "true", "false", "null", "[]", "[1]", "{}", "{\"id\":1}");
+    // Path segments the service cannot bind to an Int32; percent-encoded where they need to be
+    private static final List<String> BAD_IDS = List.of("abc", "1.5", "2147483648", "-2147483649", "0x10", "1e3",
+            "true", "null", "%20", "%00", "%zz", "1%2C2", "%D9%A1", "%EF%BC%91", "9".repeat(1000));
+    private static final List<String> CONTENT_TYPES = List.of("text/plain", "application/xml",
+            "application/x-www-form-urlencoded", "multipart/form-data; boundary=x", "application/jsonx");
+    private static final List<String> NOT_OBJECTS = List.of("[]", "[{}]", "1", "\"text\"", "null", "true", "", "   ");
+    private static final List<String> FILLERS = List.of("a", "é", "😀", "\u0000", "\\", "\"",
+            "<script>", "'; DROP TABLE Books;--");
+    private static final Mutation[] MUTATIONS = Mutation.values();
+
+    private final long seed;
+    private final Map<FieldType, List<JsonNode>> wrongValues = new EnumMap<>(FieldType.class);
+    private final Map<Resource, ObjectNode> validBodies = new EnumMap<>(Resource.class);
+
+    CaseGenerator(long seed) {
+        this.seed = seed;
+        for (FieldType type : FieldType.values()) {
+            List<JsonNode> wrong = new ArrayList<>();
+            for (String value : VALUES) {
+                JsonNode node = parse(value);
+                if (!type.accepts(node)) {
+                    wrong.add(node);
+                }
+            }
+            wrongValues.put(type, List.copyOf(wrong));
+        }
+        for (Resource resource : Resource.values()) {
+            ObjectNode body = MAPPER.createObjectNode();
+            resource.fields().forEach((name, type) -> body.set(name, validValue(type)));
+            validBodies.put(resource, body);
+        }
+    }
+
+    FuzzCase generate(long index) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+        Resource resource = pick(random, Resource.values());
+        return switch (MUTATIONS[random.nextInt(MUTATIONS.length)]) {
+            case WRONG_TYPE -> wrongType(random, resource);
+            case MISSING_FIELDS -> missingFields(random, resource);
+            case OVERSIZED_STRING -> oversizedString(random, resource);
+            case BAD_ID -> badId(random, resource);
+            case MALFORMED_JSON -> malformedJson(random, resource);
+            case WRONG_CONTENT_TYPE -> {
+                String contentType = random.nextInt(CONTENT_TYPES.size() + 1) == 0 ? null : pick(random, CONTENT_TYPES);
+                yield bodyCase(random, resource, Mutation.WRONG_CONTENT_TYPE,
+                        contentType == null ? "no content type" : contentType, contentType, bytes(validBodies.get(resource)));
+            }
+        };
+    }
+
+    private FuzzCase wrongType(SplittableRandom random, Resource resource) {
+        String field = pick(random, resource.fields().keySet().toArray(String[]::new));
+        JsonNode value = pick(random, wrongValues.get(resource.fields().get(field)));
+        ObjectNode body = validBodies.get(resource).deepCopy();
+        body.set(field, value);
+        return bodyCase(random, resource, Mutation.WRONG_TYPE, field + ":" + value.getNodeType().name().toLowerCase(),
+                JSON, bytes(body));
+    }
+
+    private FuzzCase missingFields(SplittableRandom random, Resource resource) {
+        ObjectNode body = validBodies.get(resource).deepCopy();
+        List<String> fields = new ArrayList<>(resource.fields().keySet());
+        body.remove(fields.remove(random.nextInt(fields.size())));
+        for (String field : fields) {
+            if (random.nextBoolean()) {
+                body.remove(field);
+            }
+        }
+        return bodyCase(random, resource, Mutation.MISSING_FIELDS, "fields", JSON, bytes(body));
+    }
+
+    private FuzzCase oversizedString(SplittableRandom random, Resource resource) {
+        List<String> strings = new ArrayList<>();
+        resource.fields().forEach((name, type) -> {
+            if (type == FieldType.STRING) {
+                strings.add(name);
+            }
+        });
+        String field = pick(random, strings);
+        // 1 KiB to 256 KiB, mostly toward the small end so a run stays fast
+        int length = 1 << (10 + random.nextInt(9));
+        String filler = pick(random, FILLERS);
+        StringBuilder value = new StringBuilder(length);
+        while (value.length() < length) {
+            value.append(filler);
+        }
+        ObjectNode body = validBodies.get(resource).deepCopy();
+        body.put(field, value.toString());
+        return bodyCase(random, resource, Mutation.OVERSIZED_STRING, field, JSON, bytes(body));
+    }
+
+    private FuzzCase badId(SplittableRandom random, Resource resource) {
+        String id = pick(random, BAD_IDS);
+        String byBook = switch (resource) {
+            case AUTHORS -> "/authors/books/";
+            case COVER_PHOTOS -> "/books/covers/";
+            default -> null;
+        };
+        if (byBook != null && random.nextBoolean()) {
+            return new FuzzCase(resource, Mutation.BAD_ID, "idBook", "GET", listPath(resource) + byBook + id, null, null);
+        }
+        return switch (random.nextInt(3)) {
+            case 0 -> new FuzzCase(resource, Mutation.BAD_ID, "id", "GET", listPath(resource) + "/" + id, null, null);
+            case 1 -> new FuzzCase(resource, Mutation.BAD_ID, "id", "DELETE", listPath(resource) + "/" + id, null, null);
+            default -> new FuzzCase(resource, Mutation.BAD_ID, "id", "PUT", listPath(resource) + "/" + id, JSON,
+                    bytes(validBodies.get(resource)));
+        };
+    }
+
+    private FuzzCase malformedJson(SplittableRandom random, Resource resource) {
+        String valid = new String(bytes(validBodies.get(resource)), StandardCharsets.UTF_8);
+        String kind;
+        String body;
+        switch (random.nextInt(9)) {
+            case 0 -> {
+                kind = "truncated";
+                body = valid.substring(0, 1 + random.nextInt(valid.length() - 1));
+            }
+            case 1 -> {
+                kind = "trailing content";
+                body = valid + pick(random, List.of("x", "}", "{}", ",", "]", " 1"));
+            }
+            case 2 -> {
+                kind = "trailing comma";
+                body = valid.substring(0, valid.length() - 1) + ",}";
+            }
+            case 3 -> {
+                kind = "single quotes";
+                body = valid.replace('"', '\'');
+            }
+            case 4 -> {
+                kind = "unquoted name";
+                body = valid.replaceFirst("\"id\"", "id");
+            }
+            case 5 -> {
+                kind = "comment";
+                body = "{/* comment */" + valid.substring(1);
+            }
+            case 6 -> {
+                kind = "NaN";
+                body = valid.replaceFirst("\"id\":1", "\"id\":NaN");
+            }
+            case 7 -> {
+                kind = "not an object";
+                body = pick(random, NOT_OBJECTS);
+            }
+            default -> {
+                kind = "deep nesting";
+                int depth = 500 + random.nextInt(4500);
+                body = "{\"id\":" + "[".repeat(depth) + "]".repeat(depth) + "}";
+            }
+        }
+        return bodyCase(random, resource, Mutation.MALFORMED_JSON, kind, JSON, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Whether a (shrunk) case still breaks its request the way its mutation says, so that shrinking
+    // cannot end on a valid request the service rightly accepts
+    static boolean stillBroken(FuzzCase fuzzCase) {
+        return switch (fuzzCase.mutation()) {
+            case WRONG_TYPE -> {
+                String field = fuzzCase.target().substring(0, fuzzCase.target().indexOf(':'));
+                JsonNode body = strictTree(fuzzCase.body());
+                yield body != null && body.isObject() && body.has(field)
+                        && !fuzzCase.resource().fields().get(field).accepts(body.get(field));
+            }
+            case MALFORMED_JSON -> {
+                JsonNode body = strictTree(fuzzCase.body());
+                yield body == null || !body.isObject();
+            }
+            case BAD_ID -> {
+                String id = fuzzCase.path().substring(fuzzCase.path().lastIndexOf('/') + 1);
+                try {
+                    String decoded = URLDecoder.decode(id, StandardCharsets.UTF_8);
+                    yield !decoded.matches("[+-]?[0-9]{1,10}") || Long.parseLong(decoded) != (int) Long.parseLong(decoded);
+                } catch (IllegalArgumentException undecodable) {
+                    yield true;
+                }
+            }
+            default -> true;
+        };
+    }
+
+    // POST to the list or PUT to an existing id, at random
+    private static FuzzCase bodyCase(SplittableRandom random, Resource resource, Mutation mutation, String target,
+                                     String contentType, byte[] body) {
+        return random.nextBoolean()
+                ? new FuzzCase(resource, mutation, target, "POST", listPath(resource), contentType, body)
+                : new FuzzCase(resource, mutation, target, "PUT", listPath(resource) + "/1", contentType, body);
+    }
+
+    static String listPath(Resource resource) {
+        return "/api/v1/" + resource.path();
+    }
+
+    private static JsonNode validValue(FieldType type) {
+        return switch (type) {
+            case INT -> MAPPER.getNodeFactory().numberNode(1);
+            case STRING -> MAPPER.getNodeFactory().textNode("text");
+            case BOOLEAN -> MAPPER.getNodeFactory().booleanNode(true);
+            case DATE_TIME -> MAPPER.getNodeFactory().textNode("2024-01-01T00:00:00Z");
+        };
+    }
+
+    private static <T> T pick(SplittableRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static <T> T pick(SplittableRandom random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    // The body as one JSON value, or null when it is not exactly that
+    private static JsonNode strictTree(byte[] body) {
+        try {
+            return body == null ? null : STRICT.readTree(body);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static JsonNode parse(String json) {
+        try {
+            return MAPPER.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(json, e);
+        }
+    }
+
+    private static byte[] bytes(JsonNode node) {
+        try {
+            return MAPPER.writeValueAsBytes(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package FakeRestApi.fuzz;
+
+import FakeRestApi.standin.Resource;
+
+import java.nio.charset.StandardCharsets;
+
+// One generated request. `target` names what the mutation hit (a field, the id or the body) and,
+// with the resource, method and mutation, tells failures of the same cause apart. The body is
+// raw bytes as malformed ones need not be JSON; null sends none.
+public record FuzzCase(Resource resource, Mutation mutation, String target, String method, String path,
+                       String contentType, byte[] body) {
+    private static final int SHOWN_BODY_CHARS = 300;
+
+    public FuzzCase withPath(String path) {
+        return new FuzzCase(resource, mutation, target, method, path, contentType, body);
+    }
+
+    public FuzzCase withBody(byte[] body) {
+        return new FuzzCase(resource, mutation, target, method, path, contentType, body);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder described = new StringBuilder(method).append(' ').append(path);
+        if (contentType != null) {
+            described.append(" [").append(contentType).append(']');
+        }
+        if (body != null) {
+            String text = new String(body, StandardCharsets.UTF_8);
+            described.append(' ').append(text.length() <= SHOWN_BODY_CHARS ? text
+                    : text.substring(0, SHOWN_BODY_CHARS) + "... (" + body.length + " bytes)");
+        }
+        return described.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package FakeRestApi.fuzz;
+
+// The ways CaseGenerator breaks a request. Cases of a rejecting mutation must be answered with a
+// 4xx, the others (which the service tolerates by binding defaults or accepting any length) with
+// anything but a 5xx.
+public enum Mutation {
+    WRONG_TYPE(true),
+    MISSING_FIELDS(false),
+    OVERSIZED_STRING(false),
+    BAD_ID(true),
+    MALFORMED_JSON(true),
+    WRONG_CONTENT_TYPE(true);
+
+    private final boolean rejected;
+
+    Mutation(boolean rejected) {
+        this.rejected = rejected;
+    }
+
+    public boolean mustBeRejected() {
+        return rejected;
+    }
+}
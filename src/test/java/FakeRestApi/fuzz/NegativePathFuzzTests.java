@@ -0,0 +1,65 @@
+package FakeRestApi.fuzz;
+
+import FakeRestApi.standin.Resource;
+import FakeRestApi.standin.StandInServer;
+import FakeRestApi.support.ResourceLock;
+import io.qameta.allure.Allure;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static FakeRestApi.support.ResourceLock.Mode.WRITE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+// Fuzzes the negative paths of a private stand-in (stateless, so the cases leave nothing behind)
+// with -Dfakerestapi.fuzz.cases cases (5000) from -Dfakerestapi.fuzz.concurrency threads (8).
+// The seed is random unless -Dfakerestapi.fuzz.seed is given; it is part of the TestNG report, the
+// Allure attachment and the failure message, to rerun a failing run.
+public class NegativePathFuzzTests {
+    public static final String CASES_PROPERTY = "fakerestapi.fuzz.cases";
+    public static final String CONCURRENCY_PROPERTY = "fakerestapi.fuzz.concurrency";
+    public static final String SEED_PROPERTY = "fakerestapi.fuzz.seed";
+
+    // Saturates the CPU, so nothing timed may run alongside it in parallel suites
+    @Test
+    @ResourceLock(value = {"Activities", "Authors", "Books", "CoverPhotos", "Users"}, mode = WRITE)
+    public void standInHandlesEveryInvalidRequest() throws IOException {
+        long seed = Long.getLong(SEED_PROPERTY, ThreadLocalRandom.current().nextLong());
+        NegativePathFuzzer.Report report;
+        try (StandInServer standIn = StandInServer.start(0, false)) {
+            report = new NegativePathFuzzer(standIn.baseUri(), Integer.getInteger(CONCURRENCY_PROPERTY, 8))
+                    .run(seed, Long.getLong(CASES_PROPERTY, 5_000));
+        }
+        String failures = String.join("\n", report.failures().stream().map(String::valueOf).toList());
+        Allure.addAttachment("Negative-path fuzzing", "text/plain", report + "\n" + failures, ".txt");
+        Reporter.log(report.toString());
+        assertTrue(report.failures().isEmpty(), report + ", mishandled requests:\n" + failures);
+    }
+
+    @Test
+    public void shrinkingKeepsOnlyWhatMakesACaseFail() {
+        String body = "{\"id\":1,\"title\":\"" + "x".repeat(5000) + "\",\"description\":null,\"pageCount\":\"many\","
+                + "\"excerpt\":\"text\",\"publishDate\":\"2024-01-01T00:00:00Z\"}";
+        FuzzCase failing = new FuzzCase(Resource.BOOKS, Mutation.WRONG_TYPE, "pageCount:string", "POST",
+                "/api/v1/Books", "application/json", body.getBytes(StandardCharsets.UTF_8));
+        Shrinker shrinker = new Shrinker(candidate -> new String(candidate.body(), StandardCharsets.UTF_8)
+                .contains("\"pageCount\":\""), 1000);
+
+        FuzzCase shrunk = shrinker.shrink(failing);
+
+        assertEquals(new String(shrunk.body(), StandardCharsets.UTF_8), "\"pageCount\":\"");
+    }
+
+    @Test
+    public void shrinkingReducesABadIdToTheCharactersThatMatter() {
+        FuzzCase failing = new FuzzCase(Resource.BOOKS, Mutation.BAD_ID, "id", "GET", "/api/v1/Books/12a34", null, null);
+        Shrinker shrinker = new Shrinker(candidate -> candidate.path().startsWith("/api/v1/Books/")
+                && candidate.path().substring("/api/v1/Books/".length()).contains("a"), 100);
+
+        assertEquals(shrinker.shrink(failing).path(), "/api/v1/Books/a");
+    }
+}
@@ -0,0 +1,130 @@
+package FakeRestApi.fuzz;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Sends the cases of a CaseGenerator from `concurrency` virtual threads, each with its own
+// RawHttpConnection, and keeps the ones the service mishandles: a 5xx or no response at all, or
+// anything below 400 for a case that must be rejected. Failures are grouped by signature (resource,
+// method, mutation, what it hit and the status) and only the first case of each is kept, then
+// shrunk once the run is over to the smallest case that still breaks the request the same way.
+// Requests bypass RestAssured and are not recorded in the suite's metrics.
+public final class NegativePathFuzzer {
+    private static final int SHRINK_ATTEMPTS = 500;
+    private static final Pattern ID_SEGMENT = Pattern.compile("/[^/]+$");
+
+    public record Failure(String signature, long occurrences, FuzzCase first, FuzzCase shrunk, int shrinkAttempts) {
+        @Override
+        public String toString() {
+            return signature + " (" + occurrences + "x)\n    first:  " + first + "\n    shrunk: " + shrunk;
+        }
+    }
+
+    public record Report(long seed, long cases, long elapsedNanos, Map<Mutation, Long> casesByMutation,
+                         List<Failure> failures) {
+        public double casesPerMinute() {
+            return cases / (elapsedNanos / 60e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Fuzzed %d cases (seed %d) in %.2f s, %.0f cases/min %s: %d distinct failures",
+                    cases, seed, elapsedNanos / 1e9, casesPerMinute(), casesByMutation, failures.size());
+        }
+    }
+
+    private static final class Group {
+        final FuzzCase first;
+        final LongAdder occurrences = new LongAdder();
+
+        Group(FuzzCase first) {
+            this.first = first;
+        }
+    }
+
+    private final String baseUri;
+    private final int concurrency;
+
+    public NegativePathFuzzer(String baseUri, int concurrency) {
+        this.baseUri = baseUri;
+        this.concurrency = concurrency;
+    }
+
+    public Report run(long seed, long cases) {
+        CaseGenerator generator = new CaseGenerator(seed);
+        AtomicLong next = new AtomicLong();
+        Map<Mutation, LongAdder> counts = new EnumMap<>(Mutation.class);
+        for (Mutation mutation : Mutation.values()) {
+            counts.put(mutation, new LongAdder());
+        }
+        ConcurrentMap<String, Group> groups = new ConcurrentHashMap<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.execute(() -> {
+                    try (RawHttpConnection connection = new RawHttpConnection(baseUri)) {
+                        for (long index = next.getAndIncrement(); index < cases; index = next.getAndIncrement()) {
+                            FuzzCase fuzzCase = generator.generate(index);
+                            counts.get(fuzzCase.mutation()).increment();
+                            String signature = failureSignature(fuzzCase, send(connection, fuzzCase));
+                            if (signature != null) {
+                                groups.computeIfAbsent(signature, s -> new Group(fuzzCase)).occurrences.increment();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        List<Failure> failures = new ArrayList<>();
+        try (RawHttpConnection connection = new RawHttpConnection(baseUri)) {
+            groups.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+                String signature = entry.getKey();
+                Shrinker shrinker = new Shrinker(candidate -> CaseGenerator.stillBroken(candidate)
+                        && signature.equals(failureSignature(candidate, send(connection, candidate))), SHRINK_ATTEMPTS);
+                FuzzCase shrunk = shrinker.shrink(entry.getValue().first);
+                failures.add(new Failure(signature, entry.getValue().occurrences.sum(), entry.getValue().first, shrunk,
+                        shrinker.attempts()));
+            });
+        }
+        failures.sort(Comparator.comparingLong(Failure::occurrences).reversed());
+        Map<Mutation, Long> casesByMutation = new EnumMap<>(Mutation.class);
+        counts.forEach((mutation, count) -> casesByMutation.put(mutation, count.sum()));
+        return new Report(seed, cases, elapsed, casesByMutation, failures);
+    }
+
+    // The status of the response, or -1 when there was none
+    private static int send(RawHttpConnection connection, FuzzCase fuzzCase) {
+        try {
+            return connection.exchange(fuzzCase);
+        } catch (IOException | RuntimeException e) {
+            connection.close();
+            return -1;
+        }
+    }
+
+    // Null when the service handled the case as it should
+    private static String failureSignature(FuzzCase fuzzCase, int status) {
+        boolean failed = status < 0 || status >= 500 || (fuzzCase.mutation().mustBeRejected() && status < 400);
+        if (!failed) {
+            return null;
+        }
+        String path = fuzzCase.mutation() == Mutation.BAD_ID || fuzzCase.method().equals("PUT")
+                ? ID_SEGMENT.matcher(fuzzCase.path()).replaceFirst("/{id}") : fuzzCase.path();
+        return fuzzCase.method() + " " + path + " " + fuzzCase.mutation() + " " + fuzzCase.target() + " -> "
+                + (status < 0 ? "no response" : String.valueOf(status));
+    }
+}
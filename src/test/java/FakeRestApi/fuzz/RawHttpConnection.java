@@ -0,0 +1,144 @@
+package FakeRestApi.fuzz;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+// One keep-alive HTTP/1.1 connection that writes a case as it is: the path goes out byte for byte,
+// so ids java.net.URI would refuse still reach the server, and nothing is added but Host and
+// Content-Length. Response bodies are skipped. A fuzzing run is bound by per-request overhead, and
+// this is several times cheaper than a general-purpose client. Not thread-safe; one per worker.
+final class RawHttpConnection implements AutoCloseable {
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    private final String host;
+    private final int port;
+    private Socket socket;
+    private InputStream in;
+    private OutputStream out;
+
+    RawHttpConnection(String baseUri) {
+        URI uri = URI.create(baseUri);
+        this.host = uri.getHost();
+        this.port = uri.getPort() < 0 ? 80 : uri.getPort();
+    }
+
+    // Sends the case and returns the response status
+    int exchange(FuzzCase fuzzCase) throws IOException {
+        boolean reused = socket != null;
+        if (!reused) {
+            open();
+        }
+        try {
+            write(fuzzCase);
+            return readResponse();
+        } catch (IOException e) {
+            close();
+            if (!reused) {
+                throw e;
+            }
+            // The server may close an idle connection, or one whose request body it did not read
+            open();
+            write(fuzzCase);
+            return readResponse();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing more will be read from it
+            }
+            socket = null;
+        }
+    }
+
+    private void open() throws IOException {
+        socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(TIMEOUT_MILLIS);
+        in = new BufferedInputStream(socket.getInputStream());
+        out = new BufferedOutputStream(socket.getOutputStream());
+    }
+
+    private void write(FuzzCase fuzzCase) throws IOException {
+        StringBuilder head = new StringBuilder(128)
+                .append(fuzzCase.method()).append(' ').append(fuzzCase.path()).append(" HTTP/1.1\r\n")
+                .append("Host: ").append(host).append(':').append(port).append("\r\n");
+        if (fuzzCase.contentType() != null) {
+            head.append("Content-Type: ").append(fuzzCase.contentType()).append("\r\n");
+        }
+        byte[] body = fuzzCase.body();
+        if (body != null || fuzzCase.method().equals("POST") || fuzzCase.method().equals("PUT")) {
+            head.append("Content-Length: ").append(body == null ? 0 : body.length).append("\r\n");
+        }
+        out.write(head.append("\r\n").toString().getBytes(StandardCharsets.UTF_8));
+        if (body != null) {
+            out.write(body);
+        }
+        out.flush();
+    }
+
+    private int readResponse() throws IOException {
+        String statusLine = readLine();
+        int status = Integer.parseInt(statusLine.split(" ", 3)[1]);
+        long length = -1;
+        boolean chunked = false;
+        boolean closing = false;
+        for (String header = readLine(); !header.isEmpty(); header = readLine()) {
+            int colon = header.indexOf(':');
+            String name = header.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = header.substring(colon + 1).trim().toLowerCase(Locale.ROOT);
+            switch (name) {
+                case "content-length" -> length = Long.parseLong(value);
+                case "transfer-encoding" -> chunked = value.contains("chunked");
+                case "connection" -> closing = value.contains("close");
+                default -> {
+                }
+            }
+        }
+        if (chunked) {
+            for (long chunk = Long.parseLong(readLine().split(";", 2)[0].trim(), 16); chunk > 0;
+                 chunk = Long.parseLong(readLine().split(";", 2)[0].trim(), 16)) {
+                in.skipNBytes(chunk);
+                readLine();
+            }
+            while (!readLine().isEmpty()) {
+                // Trailers
+            }
+        } else if (length >= 0) {
+            in.skipNBytes(length);
+        } else if (status >= 200 && status != 204 && status != 304) {
+            // Delimited by the end of the connection
+            in.transferTo(OutputStream.nullOutputStream());
+            closing = true;
+        }
+        if (closing) {
+            close();
+        }
+        return status;
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int b = in.read(); b != '\n'; b = in.read()) {
+            if (b < 0) {
+                throw new EOFException("Connection closed by the server");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+}
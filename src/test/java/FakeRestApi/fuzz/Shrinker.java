@@ -0,0 +1,146 @@
+package FakeRestApi.fuzz;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+// Reduces a failing case to a smaller one that still fails the same way. A JSON object body first
+// loses whole fields and has its string values halved; then any body, JSON or not, and a bad id
+// in the path go through delta debugging (ddmin), which removes ever smaller chunks for as long as
+// the case keeps failing. Every attempt is a request, so at most `maxAttempts` are tried.
+final class Shrinker {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Predicate<FuzzCase> stillFails;
+    private final int maxAttempts;
+    private int attempts;
+
+    Shrinker(Predicate<FuzzCase> stillFails, int maxAttempts) {
+        this.stillFails = stillFails;
+        this.maxAttempts = maxAttempts;
+    }
+
+    FuzzCase shrink(FuzzCase failing) {
+        FuzzCase smallest = failing;
+        if (smallest.body() != null) {
+            smallest = shrinkFields(smallest);
+            FuzzCase current = smallest;
+            smallest = smallest.withBody(ddmin(smallest.body(), body -> test(current.withBody(body))));
+        }
+        if (smallest.mutation() == Mutation.BAD_ID) {
+            String path = smallest.path();
+            int slash = path.lastIndexOf('/') + 1;
+            FuzzCase current = smallest;
+            byte[] id = ddmin(path.substring(slash).getBytes(StandardCharsets.UTF_8), candidate -> candidate.length > 0
+                    && test(current.withPath(path.substring(0, slash) + new String(candidate, StandardCharsets.UTF_8))));
+            smallest = smallest.withPath(path.substring(0, slash) + new String(id, StandardCharsets.UTF_8));
+        }
+        return smallest;
+    }
+
+    int attempts() {
+        return attempts;
+    }
+
+    private FuzzCase shrinkFields(FuzzCase failing) {
+        ObjectNode body;
+        try {
+            JsonNode parsed = MAPPER.readTree(failing.body());
+            if (parsed == null || !parsed.isObject()) {
+                return failing;
+            }
+            body = (ObjectNode) parsed;
+        } catch (IOException notJson) {
+            return failing;
+        }
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (String field : fieldNames(body)) {
+                ObjectNode without = body.deepCopy();
+                without.remove(field);
+                if (test(failing.withBody(bytes(without)))) {
+                    body = without;
+                    progress = true;
+                }
+            }
+            for (String field : fieldNames(body)) {
+                JsonNode value = body.get(field);
+                if (value.isTextual() && !value.asText().isEmpty()) {
+                    String text = value.asText();
+                    ObjectNode shorter = body.deepCopy();
+                    shorter.put(field, text.substring(0, text.offsetByCodePoints(0, text.codePointCount(0, text.length()) / 2)));
+                    if (test(failing.withBody(bytes(shorter)))) {
+                        body = shorter;
+                        progress = true;
+                    }
+                }
+            }
+        }
+        return failing.withBody(bytes(body));
+    }
+
+    // Zeller's ddmin over the complements of n chunks: on a failing candidate keep it and go back
+    // to coarser chunks, otherwise split finer until the chunks are single bytes
+    private byte[] ddmin(byte[] input, Predicate<byte[]> fails) {
+        if (input.length > 0 && fails.test(new byte[0])) {
+            return new byte[0];
+        }
+        int chunks = 2;
+        while (input.length >= 2 && attempts < maxAttempts) {
+            int chunk = (input.length + chunks - 1) / chunks;
+            boolean reduced = false;
+            for (int start = 0; start < input.length && attempts < maxAttempts; start += chunk) {
+                byte[] complement = without(input, start, Math.min(start + chunk, input.length));
+                if (fails.test(complement)) {
+                    input = complement;
+                    chunks = Math.max(chunks - 1, 2);
+                    reduced = true;
+                    break;
+                }
+            }
+            if (!reduced) {
+                if (chunks >= input.length) {
+                    break;
+                }
+                chunks = Math.min(chunks * 2, input.length);
+            }
+        }
+        return input;
+    }
+
+    private boolean test(FuzzCase candidate) {
+        if (attempts >= maxAttempts) {
+            return false;
+        }
+        attempts++;
+        return stillFails.test(candidate);
+    }
+
+    private static byte[] without(byte[] input, int from, int to) {
+        byte[] rest = Arrays.copyOf(input, input.length - (to - from));
+        System.arraycopy(input, to, rest, from, input.length - to);
+        return rest;
+    }
+
+    private static List<String> fieldNames(ObjectNode body) {
+        List<String> names = new ArrayList<>();
+        body.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static byte[] bytes(JsonNode node) {
+        try {
+            return MAPPER.writeValueAsBytes(node);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package FakeRestApi.integrity;
+
+import FakeRestApi.support.AsyncApiClient;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+// Checks that the books, their authors and their cover photos refer to each other consistently.
+// /api/v1/Books is parsed while it streams in, and each book id, the first time it is seen, starts
+// the lookups of its authors (/Authors/authors/books/{id}) and cover photos
+// (/CoverPhotos/books/covers/{id}) with at most `concurrency` of them in flight; meanwhile the
+// full Authors and CoverPhotos lists stream in as well. From the answers it builds an index of
+// which book each author and cover photo belongs to, and reports every reference that does not
+// hold up: an entity pointing to a book that does not exist, one listed under a book other than
+// its own or under two books, and one that shows up in only one of its two listings.
+public final class ReferenceCrawler {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    // An entity that belongs to a book, with its full list and its per-book listing
+    enum Relation {
+        AUTHORS("Author", "/api/v1/Authors", "/api/v1/Authors/authors/books/"),
+        COVER_PHOTOS("Cover photo", "/api/v1/CoverPhotos", "/api/v1/CoverPhotos/books/covers/");
+
+        final String noun;
+        final String listPath;
+        final String byBookPath;
+
+        Relation(String noun, String listPath, String byBookPath) {
+            this.noun = noun;
+            this.listPath = listPath;
+            this.byBookPath = byBookPath;
+        }
+    }
+
+    // Which book each entity belongs to, according to the full list and to the per-book listings
+    private static final class RelationIndex {
+        final ConcurrentMap<Integer, Integer> listed = new ConcurrentHashMap<>();
+        final ConcurrentMap<Integer, Integer> listedUnderBook = new ConcurrentHashMap<>();
+    }
+
+    public record Report(int books, Map<String, Integer> entities, long requests, long elapsedNanos,
+                         List<String> problems) {
+        public double requestsPerSecond() {
+            return requests / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Crawled %d books and %s in %.2f s: %d requests, %.1f requests/s, %d problems",
+                    books, entities, elapsedNanos / 1e9, requests, requestsPerSecond(), problems.size());
+        }
+    }
+
+    private final AsyncApiClient client;
+    private final int concurrency;
+
+    public ReferenceCrawler(AsyncApiClient client, int concurrency) {
+        this.client = client;
+        this.concurrency = concurrency;
+    }
+
+    public Report crawl() {
+        long start = System.nanoTime();
+        LongAdder requests = new LongAdder();
+        Queue<String> problems = new ConcurrentLinkedQueue<>();
+        Map<Relation, RelationIndex> indexes = Map.of(Relation.AUTHORS, new RelationIndex(),
+                Relation.COVER_PHOTOS, new RelationIndex());
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (Relation relation : Relation.values()) {
+            requests.increment();
+            pending.add(client.stream(relation.listPath).thenAccept(body -> readArray(relation.listPath, body,
+                    (id, idBook) -> indexes.get(relation).listed.put(id, idBook))));
+        }
+
+        Set<Integer> books = ConcurrentHashMap.newKeySet();
+        Semaphore inFlight = new Semaphore(concurrency);
+        requests.increment();
+        readArray("/api/v1/Books", client.stream("/api/v1/Books").join(), (id, idBook) -> {
+            if (!books.add(id)) {
+                problems.add("Book " + id + " is listed more than once by /api/v1/Books");
+                return;
+            }
+            for (Relation relation : Relation.values()) {
+                // Blocks the parser when enough lookups are in flight, so the book list is read only
+                // as fast as its lookups are answered
+                inFlight.acquireUninterruptibly();
+                requests.increment();
+                pending.add(client.get(relation.byBookPath + id)
+                        .whenComplete((response, failure) -> inFlight.release())
+                        .thenAccept(response -> indexUnderBook(relation, id, response, indexes.get(relation), problems)));
+            }
+        });
+        for (CompletableFuture<Void> lookup : pending) {
+            try {
+                lookup.join();
+            } catch (RuntimeException e) {
+                problems.add(String.valueOf(e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+            }
+        }
+
+        Map<String, Integer> entities = new TreeMap<>();
+        indexes.forEach((relation, index) -> {
+            check(relation, index, books, problems);
+            entities.put(relation.listPath, index.listed.size());
+        });
+        return new Report(books.size(), entities, requests.sum(), System.nanoTime() - start,
+                problems.stream().sorted().toList());
+    }
+
+    private static void indexUnderBook(Relation relation, int idBook, Response response, RelationIndex index,
+                                       Queue<String> problems) {
+        if (response.getStatusCode() != 200) {
+            problems.add("GET " + relation.byBookPath + idBook + " answered " + response.getStatusCode());
+            return;
+        }
+        readArray(relation.byBookPath + idBook, response.asInputStream(), (id, ownBook) -> {
+            if (ownBook != idBook) {
+                problems.add(relation.noun + " " + id + " of book " + ownBook + " is listed under book " + idBook);
+            }
+            Integer other = index.listedUnderBook.putIfAbsent(id, idBook);
+            if (other != null && other != idBook) {
+                problems.add(relation.noun + " " + id + " is listed under books " + Math.min(other, idBook) + " and "
+                        + Math.max(other, idBook));
+            }
+        });
+    }
+
+    private static void check(Relation relation, RelationIndex index, Set<Integer> books, Queue<String> problems) {
+        index.listed.forEach((id, idBook) -> {
+            if (!books.contains(idBook)) {
+                problems.add(relation.noun + " " + id + " refers to book " + idBook + ", which does not exist");
+            } else if (!index.listedUnderBook.containsKey(id)) {
+                problems.add(relation.noun + " " + id + " is missing from " + relation.byBookPath + idBook);
+            }
+        });
+        index.listedUnderBook.forEach((id, idBook) -> {
+            if (!index.listed.containsKey(id)) {
+                problems.add(relation.noun + " " + id + " under book " + idBook + " is missing from " + relation.listPath);
+            }
+        });
+    }
+
+    private interface EntityConsumer {
+        void accept(int id, int idBook);
+    }
+
+    // Reads the "id" and "idBook" of every object in the JSON array as it arrives; idBook is 0 for
+    // entities without one. Closes the body.
+    private static void readArray(String source, InputStream body, EntityConsumer consumer) {
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalStateException(source + " did not answer a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                int id = 0;
+                int idBook = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "id" -> id = parser.getIntValue();
+                        case "idBook" -> idBook = parser.getIntValue();
+                        default -> parser.skipChildren();
+                    }
+                }
+                consumer.accept(id, idBook);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + source, e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package FakeRestApi.integrity;
+
+import FakeRestApi.support.BaseApiTest;
+import FakeRestApi.support.ResourceLock;
+import io.qameta.allure.Allure;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertTrue;
+
+// Crawls the relations between books, authors and cover photos (see ReferenceCrawler) with
+// -Dfakerestapi.crawler.concurrency lookups in flight (16) and fails on any dangling or
+// inconsistent reference. The crawl summary and the problems found are attached to the Allure results.
+public class ReferenceIntegrityTests extends BaseApiTest {
+    public static final String CONCURRENCY_PROPERTY = "fakerestapi.crawler.concurrency";
+
+    @Test
+    @ResourceLock({"Authors", "Books", "CoverPhotos"})
+    public void everyReferenceBetweenBooksAuthorsAndCoverPhotosResolves() {
+        ReferenceCrawler.Report report = new ReferenceCrawler(async(), Integer.getInteger(CONCURRENCY_PROPERTY, 16)).crawl();
+        String problems = String.join("\n", report.problems());
+        Allure.addAttachment("Reference crawl", "text/plain", report + "\n" + problems, ".txt");
+        assertTrue(report.problems().isEmpty(), "Broken references:\n" + problems);
+    }
+}
@@ -0,0 +1,149 @@
+package FakeRestApi.latency;
+
+import FakeRestApi.support.EndpointMetrics.Endpoint;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// Lines the timings of this run up against a baseline, endpoint by endpoint, and flags the ones
+// that got slower. A one-sided Mann-Whitney U test asks whether our samples tend to be larger than
+// the baseline's; it only looks at ranks, so a few outliers on either side do not decide it. Both
+// sides usually hold a handful of samples, so a slowdown is only flagged when the test is
+// significant at -Dfakerestapi.baseline.alpha (0.01) and the median also grew by at least
+// -Dfakerestapi.baseline.minRatio (1.2x).
+public final class BaselineComparator {
+    private static final int MIN_SAMPLES = 3;
+
+    private final double alpha;
+    private final double minRatio;
+
+    public enum Verdict {OK, SLOWER, TOO_FEW_SAMPLES}
+
+    public record Comparison(Endpoint endpoint, int baselineCount, double baselineMedianMillis, long count,
+                             double medianMillis, double pValue, Verdict verdict) {
+        public double ratio() {
+            return medianMillis / baselineMedianMillis;
+        }
+    }
+
+    public BaselineComparator(double alpha, double minRatio) {
+        this.alpha = alpha;
+        this.minRatio = minRatio;
+    }
+
+    public static BaselineComparator fromSystemProperties() {
+        return new BaselineComparator(Double.parseDouble(System.getProperty("fakerestapi.baseline.alpha", "0.01")),
+                Double.parseDouble(System.getProperty("fakerestapi.baseline.minRatio", "1.2")));
+    }
+
+    // Endpoints missing from either side are left out
+    public List<Comparison> compare(Map<Endpoint, long[]> baseline, Map<Endpoint, Histogram> latencies) {
+        List<Comparison> comparisons = new ArrayList<>();
+        baseline.forEach((endpoint, samples) -> {
+            Histogram histogram = latencies.get(endpoint);
+            if (histogram == null || histogram.getTotalCount() == 0 || samples.length == 0) {
+                return;
+            }
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            double baselineMedian = median(sorted) / 1000.0;
+            double median = histogram.getValueAtPercentile(50) / 1000.0;
+            if (sorted.length < MIN_SAMPLES || histogram.getTotalCount() < MIN_SAMPLES) {
+                comparisons.add(new Comparison(endpoint, sorted.length, baselineMedian, histogram.getTotalCount(),
+                        median, Double.NaN, Verdict.TOO_FEW_SAMPLES));
+                return;
+            }
+            double p = mannWhitneyGreater(sorted, histogram);
+            Verdict verdict = p < alpha && median >= baselineMedian * minRatio ? Verdict.SLOWER : Verdict.OK;
+            comparisons.add(new Comparison(endpoint, sorted.length, baselineMedian, histogram.getTotalCount(), median,
+                    p, verdict));
+        });
+        return comparisons;
+    }
+
+    // One-sided p-value for "the histogram's values are stochastically greater than the baseline",
+    // from the normal approximation with tie and continuity correction. Both sides are walked in
+    // value order at once, so the histogram is never expanded into single samples.
+    static double mannWhitneyGreater(long[] sortedBaseline, Histogram histogram) {
+        List<long[]> current = new ArrayList<>();
+        for (HistogramIterationValue value : histogram.recordedValues()) {
+            current.add(new long[]{histogram.medianEquivalentValue(value.getValueIteratedTo()), value.getCountAtValueIteratedTo()});
+        }
+        double n1 = sortedBaseline.length;
+        double n2 = histogram.getTotalCount();
+        double n = n1 + n2;
+        double rankSum = 0;
+        double tieTerm = 0;
+        double ranked = 0;
+        int b = 0;
+        int c = 0;
+        while (b < sortedBaseline.length || c < current.size()) {
+            long value = Math.min(b < sortedBaseline.length ? sortedBaseline[b] : Long.MAX_VALUE,
+                    c < current.size() ? current.get(c)[0] : Long.MAX_VALUE);
+            long fromBaseline = 0;
+            while (b < sortedBaseline.length && sortedBaseline[b] == value) {
+                fromBaseline++;
+                b++;
+            }
+            long fromCurrent = 0;
+            while (c < current.size() && current.get(c)[0] == value) {
+                fromCurrent += current.get(c)[1];
+                c++;
+            }
+            double tied = fromBaseline + fromCurrent;
+            double midRank = ranked + (tied + 1) / 2;
+            rankSum += midRank * fromCurrent;
+            tieTerm += tied * tied * tied - tied;
+            ranked += tied;
+        }
+        double u = rankSum - n2 * (n2 + 1) / 2;
+        double mean = n1 * n2 / 2;
+        double variance = n1 * n2 / 12 * ((n + 1) - tieTerm / (n * (n - 1)));
+        if (variance <= 0) {
+            return 1;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1 - normalCdf(z);
+    }
+
+    private static double median(long[] sorted) {
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+
+    // Abramowitz and Stegun 7.1.26, accurate to about 1e-7, plenty for a significance cut-off
+    private static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - ((((1.061405429 * t - 1.453152027) * t + 1.421413741) * t - 0.284496736) * t + 0.254829592)
+                * t * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+
+    // One row per endpoint; Allure renders text/csv attachments as a table
+    public static String csv(List<Comparison> comparisons) {
+        StringBuilder csv = new StringBuilder("endpoint,baseline samples,baseline p50 ms,samples,p50 ms,ratio,p-value,status\n");
+        for (Comparison comparison : comparisons) {
+            csv.append(String.format("%s,%d,%.2f,%d,%.2f,%.2f,%.4f,%s%n", comparison.endpoint(),
+                    comparison.baselineCount(), comparison.baselineMedianMillis(), comparison.count(),
+                    comparison.medianMillis(), comparison.ratio(), comparison.pValue(), comparison.verdict()));
+        }
+        return csv.toString();
+    }
+
+    public static String table(List<Comparison> comparisons) {
+        StringBuilder table = new StringBuilder(String.format("%-45s %9s %12s %8s %10s %7s %8s%n",
+                "Endpoint", "baseline", "baseline p50", "samples", "p50", "ratio", "p"));
+        for (Comparison comparison : comparisons) {
+            table.append(String.format("%-45s %9d %9.2f ms %8d %7.2f ms %6.2fx %8.4f%s%n", comparison.endpoint(),
+                    comparison.baselineCount(), comparison.baselineMedianMillis(), comparison.count(),
+                    comparison.medianMillis(), comparison.ratio(), comparison.pValue(),
+                    comparison.verdict() == Verdict.OK ? "" : "  " + comparison.verdict()));
+        }
+        return table.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package FakeRestApi.latency;
+
+import FakeRestApi.support.EndpointMetrics;
+import FakeRestApi.support.EndpointMetrics.Endpoint;
+import io.qameta.allure.Allure;
+import org.HdrHistogram.Histogram;
+import org.testng.Reporter;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertTrue;
+
+// Runs next to LatencyBudgetTests after the API tests and compares this run's timings with the
+// Postman collection run exported to Swagger.postman_test_run.json, or the export named by
+// -Dfakerestapi.postmanBaseline. The export was taken against the hosted API, so the comparison
+// means the most with -Phosted; the local stand-in answers far below it.
+public class LatencyBaselineTests {
+    public static final String PROPERTY = "fakerestapi.postmanBaseline";
+
+    @Test
+    public void noSignificantSlowdownAgainstPostmanBaseline() throws IOException {
+        Map<Endpoint, Histogram> latencies = EndpointMetrics.global().byEndpoint();
+        if (latencies.isEmpty()) {
+            throw new SkipException("No requests were recorded in this run");
+        }
+        Path export = Path.of(System.getProperty(PROPERTY, "Swagger.postman_test_run.json"));
+        if (!Files.isRegularFile(export)) {
+            throw new SkipException("No Postman run export at " + export.toAbsolutePath());
+        }
+        List<BaselineComparator.Comparison> comparisons = BaselineComparator.fromSystemProperties()
+                .compare(PostmanBaseline.load(export).samples(), latencies);
+        Allure.addAttachment("Latency against Postman baseline", "text/csv", BaselineComparator.csv(comparisons), ".csv");
+        Reporter.log(BaselineComparator.table(comparisons));
+
+        List<BaselineComparator.Comparison> slower = comparisons.stream()
+                .filter(comparison -> comparison.verdict() == BaselineComparator.Verdict.SLOWER).toList();
+        assertTrue(slower.isEmpty(), "Significantly slower than the Postman baseline:\n" + slower.stream()
+                .map(comparison -> String.format("  %s p50 %.2f ms against %.2f ms (%.2fx, p=%.4f)", comparison.endpoint(),
+                        comparison.medianMillis(), comparison.baselineMedianMillis(), comparison.ratio(),
+                        comparison.pValue()))
+                .collect(Collectors.joining("\n")));
+    }
+}
@@ -0,0 +1,40 @@
+package FakeRestApi.latency;
+
+import FakeRestApi.support.EndpointMetrics;
+import FakeRestApi.support.EndpointMetrics.Endpoint;
+import FakeRestApi.support.PhaseTimings;
+import io.qameta.allure.Allure;
+import org.HdrHistogram.Histogram;
+import org.testng.Reporter;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertTrue;
+
+// Runs as its own <test> after the API tests in testng.xml, so it sees the latencies of every
+// request the suite made and fails the build when an endpoint misses a percentile budget.
+public class LatencyBudgetTests {
+    @Test
+    public void endpointLatenciesStayWithinBudget() throws IOException {
+        Map<Endpoint, Histogram> latencies = EndpointMetrics.global().byEndpoint();
+        if (latencies.isEmpty()) {
+            throw new SkipException("No requests were recorded in this run");
+        }
+        List<LatencyBudgets.Result> results = LatencyBudgets.load().evaluate(latencies);
+        Allure.addAttachment("Latency budgets", "text/csv", LatencyBudgets.csv(results), ".csv");
+        // Where the time went, phase by phase, to tell server latency from connection setup
+        Allure.addAttachment("Request phases", "text/plain", PhaseTimings.global().prometheus(), ".prom");
+        Reporter.log(LatencyBudgets.table(results));
+
+        List<LatencyBudgets.Result> exceeded = results.stream().filter(LatencyBudgets.Result::exceeded).toList();
+        assertTrue(exceeded.isEmpty(), "Latency budgets exceeded:\n" + exceeded.stream()
+                .map(result -> String.format("  %s %s was %.2f ms, budget %.0f ms", result.endpoint(),
+                        result.budget().label(), result.actualMillis(), result.budget().limitMillis()))
+                .collect(Collectors.joining("\n")));
+    }
+}
@@ -0,0 +1,129 @@
+package FakeRestApi.latency;
+
+import FakeRestApi.support.EndpointMetrics;
+import FakeRestApi.support.EndpointMetrics.Endpoint;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Percentile budgets in milliseconds per method and path, e.g. "GET /api/v1/Books/{id}": {"p50": 200,
+// "p95": 500, "p99": 1000}. Read from latency-budgets.json on the test classpath, or from the file
+// named by -Dfakerestapi.latencyBudgets. Endpoints without an entry of their own fall back to
+// "default"; numeric path segments in the keys are folded into {id} like EndpointMetrics does.
+public final class LatencyBudgets {
+    public static final String PROPERTY = "fakerestapi.latencyBudgets";
+    private static final String RESOURCE = "latency-budgets.json";
+
+    private final Map<Endpoint, List<Budget>> budgets;
+    private final List<Budget> defaults;
+
+    public record Budget(double percentile, double limitMillis) {
+        String label() {
+            return "p" + (percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile));
+        }
+    }
+
+    public record Result(Endpoint endpoint, long count, Budget budget, double actualMillis) {
+        public boolean exceeded() {
+            return actualMillis > budget.limitMillis();
+        }
+    }
+
+    private LatencyBudgets(Map<Endpoint, List<Budget>> budgets, List<Budget> defaults) {
+        this.budgets = budgets;
+        this.defaults = defaults;
+    }
+
+    public static LatencyBudgets load() throws IOException {
+        String file = System.getProperty(PROPERTY);
+        if (file != null) {
+            try (InputStream in = Files.newInputStream(Path.of(file))) {
+                return parse(in);
+            }
+        }
+        try (InputStream in = LatencyBudgets.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new FileNotFoundException(RESOURCE + " is not on the test classpath");
+            }
+            return parse(in);
+        }
+    }
+
+    static LatencyBudgets parse(InputStream in) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(in);
+        Map<Endpoint, List<Budget>> budgets = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = root.path("endpoints").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            String[] parts = entry.getKey().trim().split("\\s+", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected \"METHOD /path\" but got \"" + entry.getKey() + "\"");
+            }
+            budgets.put(new Endpoint(parts[0].toUpperCase(), EndpointMetrics.template(parts[1])), budgetsOf(entry.getValue()));
+        }
+        return new LatencyBudgets(budgets, budgetsOf(root.path("default")));
+    }
+
+    private static List<Budget> budgetsOf(JsonNode node) {
+        List<Budget> budgets = new ArrayList<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            if (!entry.getKey().startsWith("p") || !entry.getValue().isNumber()) {
+                throw new IllegalArgumentException("Expected a budget like \"p99\": 500 but got \"" + entry.getKey() + "\"");
+            }
+            double percentile = Double.parseDouble(entry.getKey().substring(1));
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile out of range: " + entry.getKey());
+            }
+            budgets.add(new Budget(percentile, entry.getValue().asDouble()));
+        }
+        return budgets;
+    }
+
+    // Checks every recorded endpoint against its budgets; endpoints with neither an entry nor a
+    // default are left out
+    public List<Result> evaluate(Map<Endpoint, Histogram> latencies) {
+        List<Result> results = new ArrayList<>();
+        latencies.forEach((endpoint, histogram) -> {
+            if (histogram.getTotalCount() == 0) {
+                return;
+            }
+            for (Budget budget : budgets.getOrDefault(endpoint, defaults)) {
+                results.add(new Result(endpoint, histogram.getTotalCount(), budget,
+                        histogram.getValueAtPercentile(budget.percentile()) / 1000.0));
+            }
+        });
+        return results;
+    }
+
+    // One row per endpoint and percentile; Allure renders text/csv attachments as a table
+    public static String csv(List<Result> results) {
+        StringBuilder csv = new StringBuilder("endpoint,samples,percentile,actual ms,budget ms,status\n");
+        for (Result result : results) {
+            csv.append(String.format("%s,%d,%s,%.2f,%.0f,%s%n", result.endpoint(), result.count(), result.budget().label(),
+                    result.actualMillis(), result.budget().limitMillis(), result.exceeded() ? "EXCEEDED" : "ok"));
+        }
+        return csv.toString();
+    }
+
+    public static String table(List<Result> results) {
+        StringBuilder table = new StringBuilder(String.format("%-45s %8s %6s %10s %10s%n",
+                "Endpoint", "samples", "pct", "actual ms", "budget ms"));
+        for (Result result : results) {
+            table.append(String.format("%-45s %8d %6s %10.2f %10.0f%s%n", result.endpoint(), result.count(),
+                    result.budget().label(), result.actualMillis(), result.budget().limitMillis(),
+                    result.exceeded() ? "  EXCEEDED" : ""));
+        }
+        return table.toString();
+    }
+}
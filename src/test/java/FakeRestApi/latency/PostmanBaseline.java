@@ -0,0 +1,137 @@
+package FakeRestApi.latency;
+
+import FakeRestApi.support.EndpointMetrics;
+import FakeRestApi.support.EndpointMetrics.Endpoint;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Latency samples per endpoint taken from a Postman collection run export such as
+// Swagger.postman_test_run.json. The export lists each request's url and times under "results"
+// but its method only under "collection.requests", so the file is streamed once and the two are
+// joined by request id at the end. URLs are reduced to their path template the same way
+// EndpointMetrics keys our own timings, so both line up.
+public final class PostmanBaseline {
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Pattern URL_PATH = Pattern.compile("^(?:[a-zA-Z][a-zA-Z0-9+.-]*://[^/]*|\\{\\{[^}]*}})?([^?#]*)");
+
+    private final Map<Endpoint, long[]> samples;
+
+    private record Result(String url, List<Long> times) {
+    }
+
+    private PostmanBaseline(Map<Endpoint, long[]> samples) {
+        this.samples = samples;
+    }
+
+    public static PostmanBaseline load(Path export) throws IOException {
+        Map<String, Result> results = new HashMap<>();
+        Map<String, String> methods = new HashMap<>();
+        try (JsonParser parser = JSON.createParser(export.toFile())) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("results") && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readResult(parser, results);
+                    }
+                } else if (field.equals("collection") && value == JsonToken.START_OBJECT) {
+                    readCollection(parser, methods);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        Map<Endpoint, List<Long>> byEndpoint = new TreeMap<>(Comparator.comparing(Endpoint::path).thenComparing(Endpoint::method));
+        results.forEach((id, result) -> {
+            String method = methods.get(id);
+            Matcher path = URL_PATH.matcher(result.url());
+            if (method == null || result.times().isEmpty() || !path.find()) {
+                return;
+            }
+            byEndpoint.computeIfAbsent(new Endpoint(method.toUpperCase(), EndpointMetrics.template(path.group(1))),
+                    endpoint -> new ArrayList<>()).addAll(result.times());
+        });
+        Map<Endpoint, long[]> samples = new LinkedHashMap<>();
+        byEndpoint.forEach((endpoint, times) -> samples.put(endpoint, times.stream().mapToLong(Long::longValue).toArray()));
+        return new PostmanBaseline(samples);
+    }
+
+    private static void readResult(JsonParser parser, Map<String, Result> results) throws IOException {
+        String id = null;
+        String url = null;
+        List<Long> times = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getText();
+                case "url" -> url = parser.getText();
+                case "times" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            // Postman reports milliseconds, EndpointMetrics microseconds
+                            times.add(parser.getLongValue() * 1000);
+                        }
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (id != null && url != null) {
+            results.put(id, new Result(url, times));
+        }
+    }
+
+    private static void readCollection(JsonParser parser, Map<String, String> methods) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!field.equals("requests") || value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String id = null;
+                String method = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    switch (name) {
+                        case "id" -> id = parser.getText();
+                        case "method" -> method = parser.getText();
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (id != null && method != null) {
+                    methods.put(id, method);
+                }
+            }
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Not a Postman run export: expected " + expected + " but got " + actual);
+        }
+    }
+
+    // Samples in microseconds per endpoint, ordered by path and method
+    public Map<Endpoint, long[]> samples() {
+        return samples;
+    }
+}
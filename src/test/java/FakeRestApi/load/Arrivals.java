@@ -0,0 +1,24 @@
+package FakeRestApi.load;
+
+import java.util.random.RandomGenerator;
+
+// When OpenLoopRunner starts the next scenario iteration: at a fixed interval, or as a Poisson
+// process whose exponentially distributed gaps bunch arrivals up the way independent users do.
+public enum Arrivals {
+    FIXED {
+        @Override
+        public long gapNanos(double perSecond, RandomGenerator random) {
+            return Math.round(1e9 / perSecond);
+        }
+    },
+    POISSON {
+        @Override
+        public long gapNanos(double perSecond, RandomGenerator random) {
+            // 1 - nextDouble() is in (0, 1], so the logarithm stays finite
+            return Math.round(-Math.log(1 - random.nextDouble()) * 1e9 / perSecond);
+        }
+    };
+
+    // The time from one arrival to the next at the given mean rate
+    public abstract long gapNanos(double perSecond, RandomGenerator random);
+}
@@ -0,0 +1,45 @@
+package FakeRestApi.load;
+
+import FakeRestApi.support.EndpointMetrics;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+
+// Plain-text summary of a load run: scenario outcomes, then throughput and latency percentiles
+// per endpoint and status code, and for open-loop runs the response time of each scenario.
+public final class LoadReport {
+    private LoadReport() {
+    }
+
+    public static String format(String header, Scenarios scenarios, Map<EndpointMetrics.Key, Histogram> latencies,
+                                double elapsedSeconds) {
+        StringBuilder report = new StringBuilder(header).append('\n');
+        report.append(String.format("%n%-50s %6s %12s %10s %10s%n", "Scenario", "weight", "iterations", "failed", "errors"));
+        for (Scenarios.Scenario scenario : scenarios.all()) {
+            long iterations = scenario.passed() + scenario.failed() + scenario.errors();
+            report.append(String.format("%-50s %6d %12d %10d %10d%n",
+                    scenario.name(), scenario.weight(), iterations, scenario.failed(), scenario.errors()));
+        }
+        report.append(String.format("%n%-45s %6s %10s %9s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "status", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        latencies.forEach((key, histogram) -> report.append(String.format("%-45s %6d %10d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                key.endpoint(), key.status(), histogram.getTotalCount(), histogram.getTotalCount() / elapsedSeconds,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0)));
+        return report.toString();
+    }
+
+    // Response times from each iteration's scheduled start, as OpenLoopRunner measures them
+    public static String responseTimes(Map<Scenarios.Scenario, Histogram> responseTimes) {
+        StringBuilder report = new StringBuilder(String.format("%n%-50s %10s %9s %9s %9s %9s %9s%n",
+                "Scenario response time (from scheduled start)", "count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        responseTimes.forEach((scenario, histogram) -> report.append(String.format("%-50s %10d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                scenario.name(), histogram.getTotalCount(), millis(histogram, 50), millis(histogram, 90),
+                millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0)));
+        return report.toString();
+    }
+
+    static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,120 @@
+package FakeRestApi.load;
+
+import FakeRestApi.support.ApiTarget;
+import FakeRestApi.support.EndpointMetrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drives the @LoadScenario test methods from many virtual threads, each running scenarios back to
+// back (closed loop) until the duration elapses or the iteration budget is used up. Runs against
+// whatever ApiTarget resolves, so -Dfakerestapi.baseUri selects the stand-in or a deployment:
+//
+//   mvn -Pload test-compile exec:java -Dload.users=1000 -Dload.duration=30s
+//
+// Settings: load.users, load.duration (e.g. 500ms, 30s, 2m), load.iterations (overrides the
+// duration), load.classes (comma-separated test classes) and load.report (report file). With
+// load.rate set, the scenarios run open loop on an arrival schedule instead (see OpenLoopRunner).
+// Closed-loop latencies leave out the requests a user would have sent while it waited, so they
+// flatter the tail whenever the target slows down.
+public final class LoadRunner {
+    private final Scenarios scenarios;
+    private final int users;
+    private final Duration duration;
+    private final long iterations;
+
+    public LoadRunner(Scenarios scenarios, int users, Duration duration, long iterations) {
+        this.scenarios = scenarios;
+        this.users = users;
+        this.duration = duration;
+        this.iterations = iterations;
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean openLoop = System.getProperty("load.rate") != null;
+        int users = openLoop ? Integer.getInteger("load.maxInFlight", 10_000) : Integer.getInteger("load.users", 1000);
+        configureDefaults(users);
+        List<String> classes = System.getProperty("load.classes") == null
+                ? Scenarios.DEFAULT_CLASSES
+                : Arrays.asList(System.getProperty("load.classes").split(","));
+        Scenarios scenarios = Scenarios.discover(classes);
+        try {
+            String report = openLoop ? OpenLoopRunner.fromSystemProperties(scenarios).run()
+                    : new LoadRunner(scenarios, users, parseDuration(System.getProperty("load.duration", "30s")),
+                    Long.getLong("load.iterations", 0)).run();
+            System.out.println(report);
+            write(Path.of(System.getProperty("load.report", "target/load-report.txt")), report);
+        } finally {
+            if (ApiTarget.isLocal()) {
+                ApiTarget.standIn().close();
+            }
+        }
+    }
+
+    // Sizes the shared connection pool for the number of users and keeps the exchange log off,
+    // unless set explicitly; must run before the first request spec is built
+    static void configureDefaults(int users) {
+        if (System.getProperty("fakerestapi.http.maxConnections") == null) {
+            System.setProperty("fakerestapi.http.maxConnections", String.valueOf(Math.min(users, 1024)));
+        }
+        if (System.getProperty("fakerestapi.exchangeLog") == null) {
+            System.setProperty("fakerestapi.exchangeLog", "none");
+        }
+    }
+
+    public String run() throws InterruptedException {
+        // One pass over every scenario warms up the JIT, Groovy and the connection pool
+        for (Scenarios.Scenario scenario : scenarios.all()) {
+            scenario.run();
+        }
+        EndpointMetrics metrics = EndpointMetrics.global();
+        metrics.reset();
+        scenarios.resetCounters();
+
+        AtomicLong remaining = new AtomicLong(iterations > 0 ? iterations : Long.MAX_VALUE);
+        long deadline = iterations > 0 ? Long.MAX_VALUE : System.nanoTime() + duration.toNanos();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline && remaining.decrementAndGet() >= 0) {
+                        scenarios.pick().run();
+                    }
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long total = scenarios.all().stream().mapToLong(s -> s.passed() + s.failed() + s.errors()).sum();
+        String header = String.format("Closed-loop run against %s: %d virtual users, %.1f s, %d scenario iterations (%.1f/s)",
+                ApiTarget.baseUri(), users, elapsedSeconds, total, total / elapsedSeconds);
+        return LoadReport.format(header, scenarios, metrics.snapshot(), elapsedSeconds);
+    }
+
+    static Duration parseDuration(String text) {
+        String value = text.trim().toLowerCase();
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration " + text);
+        };
+    }
+
+    static void write(Path file, String report) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Files.writeString(file, report);
+    }
+}
@@ -0,0 +1,14 @@
+package FakeRestApi.load;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a test method as a workload unit for LoadRunner. Scenarios are picked at random in
+// proportion to their weight, so the weights describe the traffic mix.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface LoadScenario {
+    int weight() default 1;
+}
@@ -0,0 +1,135 @@
+package FakeRestApi.load;
+
+import FakeRestApi.support.ApiTarget;
+import FakeRestApi.support.EndpointMetrics;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Starts scenario iterations on an arrival schedule (see Arrivals) that does not wait for
+// responses, each on a virtual thread of its own, so a slow target builds up a queue the way it
+// does in production instead of slowing the load down. Every iteration is timed from its
+// scheduled start, and each of its requests from when it would have been sent on schedule (see
+// EndpointMetrics), which corrects the histograms for coordinated omission: time the generator
+// spent behind, because the scheduler thread stalled or load.maxInFlight iterations were already
+// running, counts as latency rather than going unrecorded. LoadRunner runs this when load.rate is set:
+//
+//   mvn -Pload test-compile exec:java -Dload.rate=200 -Dload.arrivals=poisson -Dload.duration=30s
+//
+// Settings: load.rate (iterations per second), load.arrivals (fixed or poisson), load.duration,
+// load.maxInFlight (10000) and load.seed (of the Poisson gaps and the scenario mix).
+public final class OpenLoopRunner {
+    private final Scenarios scenarios;
+    private final double ratePerSecond;
+    private final Arrivals arrivals;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final long seed;
+    private final EndpointMetrics metrics;
+    private final Map<Scenarios.Scenario, Histogram> responseTimes = new LinkedHashMap<>();
+    private final LongAdder late = new LongAdder();
+    private long maxSchedulerLagNanos;
+
+    public OpenLoopRunner(Scenarios scenarios, double ratePerSecond, Arrivals arrivals, Duration duration,
+                          int maxInFlight, long seed) {
+        this(scenarios, ratePerSecond, arrivals, duration, maxInFlight, seed, EndpointMetrics.global());
+    }
+
+    OpenLoopRunner(Scenarios scenarios, double ratePerSecond, Arrivals arrivals, Duration duration,
+                   int maxInFlight, long seed, EndpointMetrics metrics) {
+        if (!(ratePerSecond > 0) || maxInFlight < 1) {
+            throw new IllegalArgumentException("Open-loop runs need a positive rate and maxInFlight");
+        }
+        this.scenarios = scenarios;
+        this.ratePerSecond = ratePerSecond;
+        this.arrivals = arrivals;
+        this.duration = duration;
+        this.maxInFlight = maxInFlight;
+        this.seed = seed;
+        this.metrics = metrics;
+        for (Scenarios.Scenario scenario : scenarios.all()) {
+            responseTimes.put(scenario, new ConcurrentHistogram(3));
+        }
+    }
+
+    static OpenLoopRunner fromSystemProperties(Scenarios scenarios) {
+        return new OpenLoopRunner(scenarios, Double.parseDouble(System.getProperty("load.rate")),
+                Arrivals.valueOf(System.getProperty("load.arrivals", "fixed").trim().toUpperCase()),
+                LoadRunner.parseDuration(System.getProperty("load.duration", "30s")),
+                Integer.getInteger("load.maxInFlight", 10_000),
+                Long.getLong("load.seed", System.nanoTime()));
+    }
+
+    public String run() throws InterruptedException {
+        // One pass over every scenario warms up the JIT, Groovy and the connection pool
+        for (Scenarios.Scenario scenario : scenarios.all()) {
+            scenario.run();
+        }
+        metrics.reset();
+        scenarios.resetCounters();
+        responseTimes.values().forEach(Histogram::reset);
+        late.reset();
+        maxSchedulerLagNanos = 0;
+
+        SplittableRandom random = new SplittableRandom(seed);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long scheduled = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long intended = start; intended < end; intended += arrivals.gapNanos(ratePerSecond, random)) {
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                maxSchedulerLagNanos = Math.max(maxSchedulerLagNanos, -wait);
+                Scenarios.Scenario scenario = scenarios.pick(random);
+                long sendAt = intended;
+                executor.execute(() -> iterate(scenario, sendAt, inFlight));
+                scheduled++;
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        String header = String.format("Open-loop run against %s: %s arrivals at %.1f/s, %.1f s, %d scenario iterations "
+                        + "(%d started behind schedule, scheduler at most %.1f ms late)",
+                ApiTarget.baseUri(), arrivals.name().toLowerCase(), ratePerSecond, elapsedSeconds, scheduled, late.sum(),
+                maxSchedulerLagNanos / 1e6);
+        return LoadReport.format(header, scenarios, metrics.snapshot(), elapsedSeconds)
+                + LoadReport.responseTimes(responseTimes());
+    }
+
+    // Per scenario, from each iteration's scheduled start to its end, in microseconds
+    public Map<Scenarios.Scenario, Histogram> responseTimes() {
+        Map<Scenarios.Scenario, Histogram> copies = new LinkedHashMap<>();
+        responseTimes.forEach((scenario, histogram) -> copies.put(scenario, histogram.copy()));
+        return copies;
+    }
+
+    private void iterate(Scenarios.Scenario scenario, long intended, Semaphore inFlight) {
+        inFlight.acquireUninterruptibly();
+        try {
+            long lag = System.nanoTime() - intended;
+            // Virtual threads start within microseconds; anything beyond a millisecond is queueing
+            if (lag > TimeUnit.MILLISECONDS.toNanos(1)) {
+                late.increment();
+            }
+            EndpointMetrics.behindSchedule(lag);
+            scenario.run();
+            responseTimes.get(scenario).recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended)));
+        } finally {
+            EndpointMetrics.clearScheduleLag();
+            inFlight.release();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package FakeRestApi.load;
+
+import FakeRestApi.support.EndpointMetrics;
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class OpenLoopRunnerTests {
+
+    // A service that handles one call at a time in 10 ms, so it keeps up with at most 100 calls/s
+    public static class SerialService {
+        private static final ReentrantLock busy = new ReentrantLock();
+
+        @LoadScenario
+        public void call() throws InterruptedException {
+            busy.lock();
+            try {
+                Thread.sleep(10);
+            } finally {
+                busy.unlock();
+            }
+        }
+    }
+
+    @Test
+    public void queueingDelayOfAnOverloadedTargetIsMeasured() throws Exception {
+        Scenarios scenarios = Scenarios.discover(List.of(SerialService.class.getName()));
+        // Twice what the service keeps up with: every call waits behind the ones before it, so by
+        // the end of the second the backlog is about a second long. A closed loop would only ever
+        // see 10 ms.
+        OpenLoopRunner runner = new OpenLoopRunner(scenarios, 200, Arrivals.FIXED, Duration.ofSeconds(1), 10_000, 1,
+                new EndpointMetrics());
+        String report = runner.run();
+
+        Histogram responseTimes = runner.responseTimes().values().iterator().next();
+        assertEquals(responseTimes.getTotalCount(), 200, report);
+        assertTrue(responseTimes.getValueAtPercentile(99) > TimeUnit.MILLISECONDS.toMicros(500), report);
+        assertTrue(responseTimes.getValueAtPercentile(50) > TimeUnit.MILLISECONDS.toMicros(200), report);
+    }
+
+    @Test
+    public void arrivalsHaveTheRequestedRate() {
+        SplittableRandom random = new SplittableRandom(5);
+        int arrivals = 100_000;
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < arrivals; i++) {
+            double gap = Arrivals.POISSON.gapNanos(500, random) / 1e6;
+            sum += gap;
+            sumOfSquares += gap * gap;
+        }
+        double mean = sum / arrivals;
+        double deviation = Math.sqrt(sumOfSquares / arrivals - mean * mean);
+        // Exponential gaps: the mean is 1/rate, and the standard deviation equals the mean
+        assertEquals(mean, 2.0, 0.05);
+        assertEquals(deviation / mean, 1.0, 0.05);
+        assertEquals(Arrivals.FIXED.gapNanos(500, random), 2_000_000);
+    }
+}
@@ -0,0 +1,142 @@
+package FakeRestApi.load;
+
+import org.testng.annotations.BeforeClass;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+// The @LoadScenario methods of a set of test classes, each bound to one instance of its class,
+// with weighted random selection and per-scenario pass/fail counters.
+public final class Scenarios {
+    public static final List<String> DEFAULT_CLASSES = List.of(
+            "FakeRestApi.ActivitiesTests",
+            "FakeRestApi.AuthorsTests",
+            "FakeRestApi.BooksTests",
+            "FakeRestApi.CoverPhotosTests",
+            "FakeRestApi.UsersTests");
+
+    private final List<Scenario> scenarios;
+    private final int[] cumulativeWeights;
+
+    public static final class Scenario {
+        private final String name;
+        private final Object instance;
+        private final Method method;
+        private final int weight;
+        private final LongAdder passed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        Scenario(Object instance, Method method, int weight) {
+            this.name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+            this.instance = instance;
+            this.method = method;
+            this.weight = weight;
+        }
+
+        // Runs the test method once; assertion failures and other exceptions are counted, not thrown
+        public boolean run() {
+            try {
+                method.invoke(instance);
+                passed.increment();
+                return true;
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof AssertionError) {
+                    failed.increment();
+                } else {
+                    errors.increment();
+                }
+                return false;
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public int weight() {
+            return weight;
+        }
+
+        public long passed() {
+            return passed.sum();
+        }
+
+        public long failed() {
+            return failed.sum();
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+
+        void resetCounters() {
+            passed.reset();
+            failed.reset();
+            errors.reset();
+        }
+    }
+
+    private Scenarios(List<Scenario> scenarios) {
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("No @LoadScenario methods found");
+        }
+        this.scenarios = scenarios;
+        this.cumulativeWeights = new int[scenarios.size()];
+        int total = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            total += scenarios.get(i).weight;
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    // Instantiates each class once, runs its @BeforeClass methods and collects its @LoadScenario methods
+    public static Scenarios discover(List<String> classNames) throws ReflectiveOperationException {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String className : classNames) {
+            Class<?> testClass = Class.forName(className.trim());
+            Object instance = testClass.getDeclaredConstructor().newInstance();
+            Method[] methods = testClass.getMethods();
+            Arrays.sort(methods, Comparator.comparing(Method::getName));
+            for (Method method : methods) {
+                if (method.isAnnotationPresent(BeforeClass.class)) {
+                    method.invoke(instance);
+                }
+            }
+            for (Method method : methods) {
+                LoadScenario scenario = method.getAnnotation(LoadScenario.class);
+                if (scenario != null && scenario.weight() > 0) {
+                    scenarios.add(new Scenario(instance, method, scenario.weight()));
+                }
+            }
+        }
+        return new Scenarios(scenarios);
+    }
+
+    public List<Scenario> all() {
+        return scenarios;
+    }
+
+    public Scenario pick() {
+        return pick(ThreadLocalRandom.current());
+    }
+
+    public Scenario pick(RandomGenerator random) {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = Arrays.binarySearch(cumulativeWeights, ticket + 1);
+        return scenarios.get(index >= 0 ? index : -index - 1);
+    }
+
+    public void resetCounters() {
+        scenarios.forEach(Scenario::resetCounters);
+    }
+}
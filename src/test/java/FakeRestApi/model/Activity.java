@@ -0,0 +1,15 @@
+package FakeRestApi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// An activity as the Activities endpoints send and receive it; dueDate is an ISO-8601 date-time string.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Activity(Integer id, String title, String dueDate, Boolean completed) {
+    public static Activity titled(String title) {
+        return new Activity(null, title, null, null);
+    }
+
+    public static Activity sample(int n) {
+        return new Activity(n, "Activity " + n, "2024-09-01T00:00:00Z", n % 2 == 0);
+    }
+}
@@ -0,0 +1,17 @@
+package FakeRestApi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// An author as the Authors endpoints send and receive it. Fields left null are not serialized,
+// so partial payloads (an update that only changes names) stay partial on the wire.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Author(Integer id, Integer idBook, String firstName, String lastName) {
+    public static Author named(String firstName, String lastName) {
+        return new Author(null, null, firstName, lastName);
+    }
+
+    // A complete, distinct author for volume runs
+    public static Author sample(int n) {
+        return new Author(n, n % 200 + 1, "First Name " + n, "Last Name " + n);
+    }
+}
@@ -0,0 +1,17 @@
+package FakeRestApi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// A book as the Books endpoints send and receive it; publishDate is an ISO-8601 date-time string.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Book(Integer id, String title, String description, Integer pageCount, String excerpt,
+                   String publishDate) {
+    public static Book titled(String title) {
+        return new Book(null, title, null, null, null, null);
+    }
+
+    public static Book sample(int n) {
+        return new Book(n, "Book " + n, "Description of book " + n, n * 100, "Excerpt of book " + n,
+                "2024-09-01T00:00:00Z");
+    }
+}
@@ -0,0 +1,15 @@
+package FakeRestApi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// A cover photo as the CoverPhotos endpoints send and receive it.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CoverPhoto(Integer id, Integer idBook, String url) {
+    public static CoverPhoto withUrl(String url) {
+        return new CoverPhoto(null, null, url);
+    }
+
+    public static CoverPhoto sample(int n) {
+        return new CoverPhoto(n, n, "https://placeholdit.imgix.net/~text?txtsize=33&txt=Book%20" + n + "&w=250&h=350");
+    }
+}
@@ -0,0 +1,96 @@
+package FakeRestApi.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.restassured.mapper.ObjectMapperDeserializationContext;
+import io.restassured.mapper.ObjectMapperSerializationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Serializes the payload models through one ObjectWriter per type, built on first use and reused
+// by every thread afterwards, so a payload costs one pass over its fields and one byte[] (or none
+// with write()). The request spec installs mapper() as RestAssured's object mapper, which makes
+// .body(author) go through these writers instead of RestAssured looking up and configuring a
+// mapper per call.
+public final class Payloads {
+    private static final ObjectMapper MAPPER = new ObjectMapper(JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final ClassValue<ObjectWriter> WRITERS = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return MAPPER.writerFor(type);
+        }
+    };
+    private static final ConcurrentMap<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final RestAssuredMapper REST_ASSURED_MAPPER = new RestAssuredMapper();
+
+    private Payloads() {
+    }
+
+    public static byte[] bytes(Object payload) {
+        try {
+            return WRITERS.get(payload.getClass()).writeValueAsBytes(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Streams the payload into out without an intermediate buffer; out is left open
+    public static void write(Object payload, OutputStream out) throws IOException {
+        WRITERS.get(payload.getClass()).writeValue(out, payload);
+    }
+
+    public static <T> T read(byte[] json, Class<T> type) {
+        try {
+            return reader(type).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static io.restassured.mapper.ObjectMapper mapper() {
+        return REST_ASSURED_MAPPER;
+    }
+
+    private static ObjectReader reader(Type type) {
+        return READERS.computeIfAbsent(type, t -> {
+            JavaType javaType = MAPPER.constructType(t);
+            return MAPPER.readerFor(javaType);
+        });
+    }
+
+    private static final class RestAssuredMapper implements io.restassured.mapper.ObjectMapper {
+        // RestAssured JSON-encodes a byte[] handed back by a mapper as an array of numbers, so
+        // this returns the text; callers that want the bytes use bytes() or write()
+        @Override
+        public Object serialize(ObjectMapperSerializationContext context) {
+            Object payload = context.getObjectToSerialize();
+            try {
+                return WRITERS.get(payload.getClass()).writeValueAsString(payload);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Object deserialize(ObjectMapperDeserializationContext context) {
+            try {
+                return reader(context.getType()).readValue(context.getDataToDeserialize().asByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
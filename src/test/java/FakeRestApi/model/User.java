@@ -0,0 +1,15 @@
+package FakeRestApi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// A user as the Users endpoints send and receive it.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record User(Integer id, String userName, String password) {
+    public static User named(String userName, String password) {
+        return new User(null, userName, password);
+    }
+
+    public static User sample(int n) {
+        return new User(n, "User " + n, "Password" + n);
+    }
+}
@@ -0,0 +1,139 @@
+package FakeRestApi.standin;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertThrows;
+
+// Restarts of a stand-in started with a data directory (see MutationJournal), each on its own
+// server and directory so the suite's stand-in is untouched
+public class DurableStandInTests {
+
+    @Test
+    public void mutationsSurviveARestart() throws IOException {
+        Path dataDir = Files.createTempDirectory("stand-in-data");
+        // Snapshot every 4 mutations, so the restart reads a snapshot and the log after it
+        String previous = System.setProperty(MutationJournal.SNAPSHOT_EVERY_PROPERTY, "4");
+        try {
+            int authorId;
+            String dueDate;
+            try (StandInServer standIn = StandInServer.start(0, dataDir)) {
+                Response author = given().baseUri(standIn.baseUri()).contentType("application/json")
+                        .body("{\"idBook\":7,\"firstName\":\"Ada\",\"lastName\":\"Lovelace\"}")
+                        .post("/api/v1/Authors");
+                authorId = author.path("id");
+                for (int i = 1; i <= 5; i++) {
+                    given().baseUri(standIn.baseUri()).contentType("application/json")
+                            .body("{\"title\":\"Revised " + i + "\",\"pageCount\":" + i + "}")
+                            .put("/api/v1/Books/5").then().statusCode(200);
+                }
+                given().baseUri(standIn.baseUri()).delete("/api/v1/CoverPhotos/7").then().statusCode(200);
+                dueDate = given().baseUri(standIn.baseUri()).get("/api/v1/Activities/1").path("dueDate");
+            }
+
+            try (StandInServer restarted = StandInServer.start(0, dataDir)) {
+                given().baseUri(restarted.baseUri()).get("/api/v1/Authors/" + authorId).then().statusCode(200)
+                        .body("firstName", equalTo("Ada")).body("idBook", equalTo(7));
+                given().baseUri(restarted.baseUri()).get("/api/v1/Books/5").then().statusCode(200)
+                        .body("title", equalTo("Revised 5")).body("pageCount", equalTo(5));
+                given().baseUri(restarted.baseUri()).get("/api/v1/CoverPhotos/7").then().statusCode(404);
+                given().baseUri(restarted.baseUri()).get("/api/v1/Activities/1").then().body("dueDate", equalTo(dueDate));
+                // Ids handed out before the restart are not handed out again
+                given().baseUri(restarted.baseUri()).contentType("application/json").body("{\"firstName\":\"Grace\"}")
+                        .post("/api/v1/Authors").then().body("id", equalTo(authorId + 1));
+            }
+        } finally {
+            if (previous == null) {
+                System.clearProperty(MutationJournal.SNAPSHOT_EVERY_PROPERTY);
+            } else {
+                System.setProperty(MutationJournal.SNAPSHOT_EVERY_PROPERTY, previous);
+            }
+        }
+    }
+
+    @Test
+    public void aMutationTheLogRefusesLeavesTheStoresUntouched() throws IOException {
+        Path dataDir = Files.createTempDirectory("stand-in-data");
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+        MutationJournal journal = MutationJournal.open(dataDir, now);
+        EntityStore books = journal.store(Resource.BOOKS);
+        ObjectNode book = books.get(5);
+        int nextId = books.nextId();
+        journal.close();
+
+        ObjectNode revised = JsonNodeFactory.instance.objectNode().put("title", "Revised");
+        assertThrows(UncheckedIOException.class, () -> journal.update(books, 5, revised));
+        assertThrows(UncheckedIOException.class, () -> journal.create(books, revised.put("id", 0)));
+        assertThrows(UncheckedIOException.class, () -> journal.delete(books, 7));
+        assertSame(books.get(5), book);
+        assertNull(books.get(nextId));
+        assertNotNull(books.get(7));
+
+        try (MutationJournal reopened = MutationJournal.open(dataDir, now)) {
+            EntityStore restored = reopened.store(Resource.BOOKS);
+            assertEquals(restored.get(5), book);
+            assertNull(restored.get(nextId));
+            assertNotNull(restored.get(7));
+        }
+    }
+
+    @Test
+    public void reopeningTheLogDropsATornWrite() throws IOException {
+        Path dir = Files.createTempDirectory("mutation-log");
+        try (MutationLog log = MutationLog.open(dir, 0, entry -> {
+        })) {
+            for (String record : List.of("first", "second", "third")) {
+                log.awaitDurable(log.append(record.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        Path segment;
+        try (var files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        // Corrupt the last record's payload, as if the write had stopped halfway
+        int third = 2 * (16 + "first".length()) + 1;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap("sec".getBytes(StandardCharsets.UTF_8)), third + 16);
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (MutationLog log = MutationLog.open(dir, 0, entry -> replayed.add(text(entry.payload())))) {
+            assertEquals(replayed, List.of("first", "second"));
+            assertEquals(log.lastSeq(), 2);
+            log.awaitDurable(log.append("fourth".getBytes(StandardCharsets.UTF_8)));
+        }
+        replayed.clear();
+        try (MutationLog log = MutationLog.open(dir, 1, entry -> replayed.add(entry.seq() + ":" + text(entry.payload())))) {
+            assertEquals(replayed, List.of("2:second", "3:fourth"));
+            assertEquals(log.lastSeq(), 3);
+        }
+    }
+
+    private static String text(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,89 @@
+package FakeRestApi.standin;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+// In-memory entities of one resource in a StripedIntMap: lookups by id take no lock, writes lock
+// one stripe, and the list endpoints get a consistent snapshot in id order.
+// Stored nodes are never mutated after insertion, so readers can serialize them without locking.
+public class EntityStore {
+    private final Resource resource;
+    private final StripedIntMap<ObjectNode> entities = new StripedIntMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    public EntityStore(Resource resource, List<ObjectNode> seed) {
+        this.resource = resource;
+        for (ObjectNode entity : seed) {
+            put(entity.get("id").intValue(), entity);
+        }
+    }
+
+    public Resource resource() {
+        return resource;
+    }
+
+    public ObjectNode get(int id) {
+        return entities.get(id);
+    }
+
+    // Read-only, and unaffected by later writes
+    public List<ObjectNode> list() {
+        return entities.values();
+    }
+
+    public List<ObjectNode> list(Predicate<ObjectNode> filter) {
+        List<ObjectNode> matches = new ArrayList<>();
+        for (ObjectNode entity : entities.values()) {
+            if (filter.test(entity)) {
+                matches.add(entity);
+            }
+        }
+        return matches;
+    }
+
+    // Stores a new entity; an id of 0 (the default for a missing id) gets the next free id
+    public ObjectNode create(ObjectNode entity) {
+        int id = entity.get("id").intValue();
+        if (id <= 0) {
+            id = nextId.getAndIncrement();
+            entity.put("id", id);
+        }
+        put(id, entity);
+        return entity;
+    }
+
+    // Replaces the entity stored under the route id, like the hosted service's PUT it also creates it
+    public ObjectNode update(int id, ObjectNode entity) {
+        entity.put("id", id);
+        put(id, entity);
+        return entity;
+    }
+
+    public void delete(int id) {
+        entities.remove(id);
+    }
+
+    // The id the next create without one gets; kept across restarts by MutationJournal snapshots,
+    // as it may be past every stored id after deletes
+    int nextId() {
+        return nextId.get();
+    }
+
+    // Hands out the id a create without one would get, for MutationJournal to log before storing
+    int reserveId() {
+        return nextId.getAndIncrement();
+    }
+
+    void advanceNextId(int id) {
+        nextId.accumulateAndGet(id, Math::max);
+    }
+
+    private void put(int id, ObjectNode entity) {
+        entities.put(id, entity);
+        nextId.accumulateAndGet(id + 1, Math::max);
+    }
+}
@@ -0,0 +1,133 @@
+package FakeRestApi.standin;
+
+import FakeRestApi.support.EndpointMetrics.Endpoint;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+// Latency and failures injected by stand-ins of their own, so the suite's stand-in is untouched
+public class FaultInjectionTests {
+
+    @Test
+    public void delaysStayWithinTheRecordedTimings() throws IOException {
+        FaultProfile profile = FaultProfile.load(Path.of("Swagger.postman_test_run.json"));
+        Endpoint activities = new Endpoint("GET", "/api/v1/Activities");
+        long[] recorded = profile.samples().get(activities);
+        assertTrue(recorded != null && recorded.length > 1, "GET /api/v1/Activities was recorded several times");
+
+        SplittableRandom random = new SplittableRandom(3);
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(profile.delayNanos(activities, random));
+            min = Math.min(min, micros);
+            max = Math.max(max, micros);
+        }
+        assertTrue(min >= recorded[0] && max <= recorded[recorded.length - 1],
+                "delays from " + min + " to " + max + " us, recorded from " + recorded[0] + " to "
+                        + recorded[recorded.length - 1]);
+        // The cold first call is in the recording, so the tail reaches far past the median
+        assertTrue(max > 4 * recorded[recorded.length / 2], "no tail latency: max " + max + " us");
+        // An endpoint the run did not record draws from every sample instead
+        assertTrue(profile.delayNanos(new Endpoint("DELETE", "/api/v1/Books/{id}"), random) > 0);
+        assertEquals(profile.withScale(0).delayNanos(activities, random), 0);
+    }
+
+    @Test
+    public void delayedRequestsWaitWithoutHoldingThreads() throws Exception {
+        long delayMillis = 300;
+        int requests = 400;
+        FaultProfile profile = FaultProfile.recorded(Map.of(new Endpoint("GET", "/api/v1/Books/{id}"),
+                new long[]{TimeUnit.MILLISECONDS.toMicros(delayMillis)}));
+        HttpClient client = HttpClient.newHttpClient();
+        try (StandInServer standIn = StandInServer.start(0, false)) {
+            standIn.injectFaults(profile);
+            long start = System.nanoTime();
+            List<CompletableFuture<Long>> responses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(standIn.baseUri() + "/api/v1/Books/" + (i % 200 + 1))).build();
+                long sent = System.nanoTime();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(response -> {
+                    assertEquals(response.statusCode(), 200);
+                    return System.nanoTime() - sent;
+                }));
+            }
+            for (CompletableFuture<Long> response : responses) {
+                assertTrue(TimeUnit.NANOSECONDS.toMillis(response.get()) >= delayMillis, "answered before its delay");
+            }
+            // Waiting one after the other would take 2 minutes
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsed < 20 * delayMillis, requests + " delayed requests took " + elapsed + " ms");
+
+            standIn.injectFaults(FaultProfile.none());
+            long undelayed = System.nanoTime();
+            assertEquals(client.send(HttpRequest.newBuilder(URI.create(standIn.baseUri() + "/api/v1/Books/1")).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode(), 200);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - undelayed) < delayMillis);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void errorsAndResetsComeAtTheConfiguredRates() throws IOException {
+        int requests = 1000;
+        int errors = 0;
+        int resets = 0;
+        try (StandInServer standIn = StandInServer.start(0, false)) {
+            standIn.injectFaults(FaultProfile.none().withErrorRate(0.3).withResetRate(0.2));
+            // A connection of its own per request, so a dropped one is seen rather than retried by a client
+            for (int i = 0; i < requests; i++) {
+                int status = get(standIn.port(), "/api/v1/Users/1");
+                if (status == 503) {
+                    errors++;
+                } else if (status < 0) {
+                    resets++;
+                } else {
+                    assertEquals(status, 200);
+                }
+            }
+        }
+        // Five standard deviations either side
+        assertTrue(Math.abs(errors - 300) < 75, errors + " errors in " + requests + " requests");
+        assertTrue(Math.abs(resets - 200) < 65, resets + " resets in " + requests + " requests");
+    }
+
+    // The status of the response, or -1 when the connection is closed without one
+    private static int get(int port, String path) throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            byte[] statusLine = in.readNBytes("HTTP/1.1 200".length());
+            if (statusLine.length < "HTTP/1.1 200".length()) {
+                return -1;
+            }
+            return Integer.parseInt(new String(statusLine, StandardCharsets.US_ASCII).substring(9));
+        } catch (SocketException reset) {
+            return -1;
+        }
+    }
+}
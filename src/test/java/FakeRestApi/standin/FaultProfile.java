@@ -0,0 +1,178 @@
+package FakeRestApi.standin;
+
+import FakeRestApi.latency.PostmanBaseline;
+import FakeRestApi.support.EndpointMetrics;
+import FakeRestApi.support.EndpointMetrics.Endpoint;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Latency and failures for the stand-in to inject (see StandInServer.injectFaults), so a run
+// against it meets the hosted service's delays and bad moments instead of loopback speed. Delays
+// are drawn per endpoint from recorded timings, either a Postman run export such as
+// Swagger.postman_test_run.json or the exchange log of an earlier run of this suite, interpolating
+// between the recorded samples; endpoints that were not recorded draw from all samples. On top of
+// that, a share of requests is answered 503 and a share has its connection dropped without a
+// response. The suite's stand-in takes -Dfakerestapi.standin.latencyProfile=<file>, .latencyScale
+// (1.0, the factor applied to every delay), .errorRate and .resetRate (both 0.0). Immutable.
+public final class FaultProfile {
+    public static final String LATENCY_PROFILE_PROPERTY = "fakerestapi.standin.latencyProfile";
+    public static final String LATENCY_SCALE_PROPERTY = "fakerestapi.standin.latencyScale";
+    public static final String ERROR_RATE_PROPERTY = "fakerestapi.standin.errorRate";
+    public static final String RESET_RATE_PROPERTY = "fakerestapi.standin.resetRate";
+
+    // ExchangeRecorder's entry header and request line
+    private static final Pattern LOG_HEADER = Pattern.compile("^=== \\S+ \\[.*] (\\d+) ms$");
+    private static final Pattern LOG_REQUEST = Pattern.compile("^([A-Z]+) (\\S+)$");
+
+    public enum Fault {NONE, ERROR, RESET}
+
+    // Sorted, in microseconds
+    private final Map<Endpoint, long[]> samples;
+    private final long[] pooled;
+    private final double scale;
+    private final double errorRate;
+    private final double resetRate;
+
+    private FaultProfile(Map<Endpoint, long[]> samples, long[] pooled, double scale, double errorRate, double resetRate) {
+        if (!(scale >= 0) || !(errorRate >= 0) || !(resetRate >= 0) || errorRate + resetRate > 1) {
+            throw new IllegalArgumentException("Invalid fault profile: latency scale " + scale + ", error rate "
+                    + errorRate + ", reset rate " + resetRate);
+        }
+        this.samples = samples;
+        this.pooled = pooled;
+        this.scale = scale;
+        this.errorRate = errorRate;
+        this.resetRate = resetRate;
+    }
+
+    // No delays and no failures
+    public static FaultProfile none() {
+        return new FaultProfile(Map.of(), new long[0], 1, 0, 0);
+    }
+
+    // Delays drawn from samples in microseconds per endpoint, as PostmanBaseline and
+    // EndpointMetrics key them
+    public static FaultProfile recorded(Map<Endpoint, long[]> samplesMicros) {
+        Map<Endpoint, long[]> sorted = new HashMap<>();
+        long[] pooled = samplesMicros.values().stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        samplesMicros.forEach((endpoint, times) -> {
+            if (times.length > 0) {
+                long[] copy = times.clone();
+                Arrays.sort(copy);
+                sorted.put(endpoint, copy);
+            }
+        });
+        return new FaultProfile(Map.copyOf(sorted), pooled, 1, 0, 0);
+    }
+
+    // A Postman run export (JSON) or an ExchangeRecorder log
+    public static FaultProfile load(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            int first;
+            do {
+                first = reader.read();
+            } while (first >= 0 && Character.isWhitespace(first));
+            if (first == '{') {
+                return recorded(PostmanBaseline.load(file).samples());
+            }
+        }
+        return recorded(readExchangeLog(file));
+    }
+
+    // The profile the system properties describe, or null when they ask for nothing
+    public static FaultProfile fromSystemProperties() throws IOException {
+        String file = System.getProperty(LATENCY_PROFILE_PROPERTY, "").trim();
+        double errorRate = Double.parseDouble(System.getProperty(ERROR_RATE_PROPERTY, "0"));
+        double resetRate = Double.parseDouble(System.getProperty(RESET_RATE_PROPERTY, "0"));
+        if (file.isEmpty() && errorRate == 0 && resetRate == 0) {
+            return null;
+        }
+        FaultProfile profile = file.isEmpty() ? none() : load(Path.of(file));
+        return profile.withScale(Double.parseDouble(System.getProperty(LATENCY_SCALE_PROPERTY, "1")))
+                .withErrorRate(errorRate)
+                .withResetRate(resetRate);
+    }
+
+    public FaultProfile withScale(double scale) {
+        return new FaultProfile(samples, pooled, scale, errorRate, resetRate);
+    }
+
+    public FaultProfile withErrorRate(double errorRate) {
+        return new FaultProfile(samples, pooled, scale, errorRate, resetRate);
+    }
+
+    public FaultProfile withResetRate(double resetRate) {
+        return new FaultProfile(samples, pooled, scale, errorRate, resetRate);
+    }
+
+    // A delay for one request to the endpoint: a random quantile of its samples, interpolated
+    // between the two nearest, times the scale; 0 without samples
+    public long delayNanos(Endpoint endpoint, RandomGenerator random) {
+        long[] times = samples.getOrDefault(endpoint, pooled);
+        if (times.length == 0 || scale == 0) {
+            return 0;
+        }
+        double position = random.nextDouble() * (times.length - 1);
+        int below = (int) position;
+        double micros = below + 1 < times.length
+                ? times[below] + (position - below) * (times[below + 1] - times[below])
+                : times[below];
+        return (long) (micros * scale * 1000);
+    }
+
+    public Fault fault(RandomGenerator random) {
+        if (errorRate == 0 && resetRate == 0) {
+            return Fault.NONE;
+        }
+        double draw = random.nextDouble();
+        return draw < resetRate ? Fault.RESET : draw < resetRate + errorRate ? Fault.ERROR : Fault.NONE;
+    }
+
+    public Map<Endpoint, long[]> samples() {
+        return samples;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d endpoints and %d latency samples, scaled %.2fx, %.1f%% errors, %.1f%% resets",
+                samples.size(), pooled.length, scale, errorRate * 100, resetRate * 100);
+    }
+
+    // Each entry's duration (whole milliseconds, as the log has them) under its method and path
+    private static Map<Endpoint, long[]> readExchangeLog(Path file) throws IOException {
+        Map<Endpoint, List<Long>> byEndpoint = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            long millis = -1;
+            for (String line; (line = reader.readLine()) != null; ) {
+                Matcher header = LOG_HEADER.matcher(line);
+                if (header.matches()) {
+                    millis = Long.parseLong(header.group(1));
+                    continue;
+                }
+                Matcher request = millis >= 0 ? LOG_REQUEST.matcher(line) : null;
+                if (request != null && request.matches()) {
+                    String path = URI.create(request.group(2)).getPath();
+                    byEndpoint.computeIfAbsent(new Endpoint(request.group(1), EndpointMetrics.template(path)),
+                            endpoint -> new ArrayList<>()).add(TimeUnit.MILLISECONDS.toMicros(millis));
+                }
+                millis = -1;
+            }
+        }
+        Map<Endpoint, long[]> samples = new HashMap<>();
+        byEndpoint.forEach((endpoint, times) -> samples.put(endpoint, times.stream().mapToLong(Long::longValue).toArray()));
+        return samples;
+    }
+}
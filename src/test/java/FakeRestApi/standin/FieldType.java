@@ -0,0 +1,93 @@
+package FakeRestApi.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+// JSON field types used by the FakeRESTApi models, with the same binding rules as the hosted
+// ASP.NET service: no coercion between strings and numbers, and value types are not nullable.
+public enum FieldType {
+    INT("System.Int32") {
+        @Override
+        public boolean accepts(JsonNode value) {
+            return value.isIntegralNumber() && value.canConvertToInt();
+        }
+
+        @Override
+        public JsonNode defaultValue() {
+            return IntNode.valueOf(0);
+        }
+    },
+    STRING("System.String") {
+        @Override
+        public boolean accepts(JsonNode value) {
+            return value.isTextual() || value.isNull();
+        }
+
+        @Override
+        public JsonNode defaultValue() {
+            return NullNode.getInstance();
+        }
+    },
+    BOOLEAN("System.Boolean") {
+        @Override
+        public boolean accepts(JsonNode value) {
+            return value.isBoolean();
+        }
+
+        @Override
+        public JsonNode defaultValue() {
+            return BooleanNode.FALSE;
+        }
+    },
+    DATE_TIME("System.DateTime") {
+        @Override
+        public boolean accepts(JsonNode value) {
+            return value.isTextual() && parseDate(value.asText()) != null;
+        }
+
+        @Override
+        public JsonNode defaultValue() {
+            return TextNode.valueOf("0001-01-01T00:00:00");
+        }
+    };
+
+    private final String clrName;
+
+    FieldType(String clrName) {
+        this.clrName = clrName;
+    }
+
+    public abstract boolean accepts(JsonNode value);
+
+    // Value the service reports for a field that was left out of the request body
+    public abstract JsonNode defaultValue();
+
+    public String clrName() {
+        return clrName;
+    }
+
+    // Calendar date of a DateTime value in any of the formats the service binds, or null if it doesn't parse
+    public static LocalDate parseDate(String text) {
+        try {
+            return OffsetDateTime.parse(text).toLocalDate();
+        } catch (DateTimeParseException notOffset) {
+            try {
+                return LocalDateTime.parse(text).toLocalDate();
+            } catch (DateTimeParseException notLocal) {
+                try {
+                    return LocalDate.parse(text);
+                } catch (DateTimeParseException notDate) {
+                    return null;
+                }
+            }
+        }
+    }
+}
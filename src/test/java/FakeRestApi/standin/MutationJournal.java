@@ -0,0 +1,271 @@
+package FakeRestApi.standin;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Keeps the stateful stand-in's entities across restarts in a data directory. Every POST, PUT and
+// DELETE is appended to the MutationLog and then applied to its EntityStore in the same order under
+// one lock, so a failed append changes nothing, and answered only once the log has committed it.
+// Every -Dfakerestapi.standin.snapshotEvery mutations (10000) the stores are copied under that
+// lock, the log moves on to a new segment, and a background thread writes the copy as
+// snapshot-<seq>.json and deletes the segments and snapshot it replaces. A restart loads the newest
+// snapshot and replays the log after it, so it reads at most one snapshot interval of records. The
+// first start writes the seed data as snapshot 0, so seeded dates do not move on restart.
+public final class MutationJournal implements AutoCloseable {
+    public static final String SNAPSHOT_EVERY_PROPERTY = "fakerestapi.standin.snapshotEvery";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".json";
+    private static final byte PUT = 0;
+    private static final byte DELETE = 1;
+    private static final Resource[] RESOURCES = Resource.values();
+
+    private final Path dir;
+    private final Map<Resource, EntityStore> stores;
+    private final MutationLog log;
+    private final int snapshotEvery;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean snapshotting = new AtomicBoolean();
+    private final ExecutorService snapshotter = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("stand-in-snapshot").factory());
+    private int sinceSnapshot;
+
+    private MutationJournal(Path dir, Map<Resource, EntityStore> stores, MutationLog log) {
+        this.dir = dir;
+        this.stores = stores;
+        this.log = log;
+        this.snapshotEvery = Math.max(1, Integer.getInteger(SNAPSHOT_EVERY_PROPERTY, 10_000));
+    }
+
+    public static MutationJournal open(Path dir, OffsetDateTime now) throws IOException {
+        Files.createDirectories(dir);
+        Map<Resource, EntityStore> stores = new EnumMap<>(Resource.class);
+        Path snapshot = latestSnapshot(dir);
+        long snapshotSeq;
+        if (snapshot == null) {
+            for (Resource resource : RESOURCES) {
+                stores.put(resource, new EntityStore(resource, resource.seed(now)));
+            }
+            snapshotSeq = 0;
+            writeSnapshot(dir, 0, copy(stores));
+        } else {
+            snapshotSeq = readSnapshot(snapshot, stores);
+        }
+        MutationLog log = MutationLog.open(dir, snapshotSeq, entry -> replay(stores, entry));
+        return new MutationJournal(dir, stores, log);
+    }
+
+    public EntityStore store(Resource resource) {
+        return stores.get(resource);
+    }
+
+    // An id of 0 (the default for a missing id) gets the next free id, reserved before the record
+    // is built; an append that fails leaves a gap in the ids and nothing else
+    public ObjectNode create(EntityStore store, ObjectNode entity) {
+        int id = entity.get("id").intValue();
+        return update(store, id > 0 ? id : store.reserveId(), entity);
+    }
+
+    public ObjectNode update(EntityStore store, int id, ObjectNode entity) {
+        entity.put("id", id);
+        commit(record(PUT, store.resource(), id, bytes(entity)), () -> store.update(id, entity));
+        return entity;
+    }
+
+    public void delete(EntityStore store, int id) {
+        commit(record(DELETE, store.resource(), id, new byte[0]), () -> store.delete(id));
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    // Appends the record and then applies the mutation it describes as one step, so the stores
+    // only ever hold what the log does, then waits for the commit outside the lock, where
+    // concurrent mutations join the same one
+    private void commit(byte[] record, Runnable mutation) {
+        try {
+            long seq;
+            lock.lock();
+            try {
+                seq = log.append(record);
+                mutation.run();
+                if (++sinceSnapshot >= snapshotEvery && snapshotting.compareAndSet(false, true)) {
+                    sinceSnapshot = 0;
+                    startSnapshot();
+                }
+            } finally {
+                lock.unlock();
+            }
+            log.awaitDurable(seq);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Called with the lock held: the copy and the new segment both stand exactly at lastSeq(). The
+    // mutation that triggered it is already logged and applied, so failing to roll only skips this
+    // snapshot.
+    private void startSnapshot() {
+        Map<Resource, Snapshot> copy = copy(stores);
+        long seq = log.lastSeq();
+        long firstKept;
+        try {
+            firstKept = log.roll();
+        } catch (IOException e) {
+            System.err.println("Could not start the stand-in snapshot at " + seq + ": " + e);
+            snapshotting.set(false);
+            return;
+        }
+        snapshotter.execute(() -> {
+            try {
+                writeSnapshot(dir, seq, copy);
+                log.deleteSegmentsBefore(firstKept);
+                try (Stream<Path> files = Files.list(dir)) {
+                    for (Path file : files.filter(MutationJournal::isSnapshot).toList()) {
+                        if (snapshotSeq(file) < seq) {
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                // The log still holds every mutation; the next interval tries again
+                System.err.println("Could not write the stand-in snapshot at " + seq + ": " + e);
+            } finally {
+                snapshotting.set(false);
+            }
+        });
+    }
+
+    private record Snapshot(int nextId, List<ObjectNode> entities) {
+    }
+
+    private static Map<Resource, Snapshot> copy(Map<Resource, EntityStore> stores) {
+        Map<Resource, Snapshot> copy = new EnumMap<>(Resource.class);
+        // Stored nodes are never mutated, so copying the references is enough
+        stores.forEach((resource, store) -> copy.put(resource, new Snapshot(store.nextId(), store.list())));
+        return copy;
+    }
+
+    private static void writeSnapshot(Path dir, long seq, Map<Resource, Snapshot> copy) throws IOException {
+        Path file = dir.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, seq, SNAPSHOT_SUFFIX));
+        Path temporary = dir.resolve(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            try (JsonGenerator json = MAPPER.createGenerator(out)) {
+                json.writeStartObject();
+                json.writeNumberField("seq", seq);
+                for (Map.Entry<Resource, Snapshot> resource : copy.entrySet()) {
+                    json.writeObjectFieldStart(resource.getKey().path());
+                    json.writeNumberField("nextId", resource.getValue().nextId());
+                    json.writeArrayFieldStart("entities");
+                    for (ObjectNode entity : resource.getValue().entities()) {
+                        json.writeTree(entity);
+                    }
+                    json.writeEndArray();
+                    json.writeEndObject();
+                }
+                json.writeEndObject();
+                json.flush();
+                channel.force(true);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static long readSnapshot(Path file, Map<Resource, EntityStore> stores) throws IOException {
+        JsonNode snapshot = MAPPER.readTree(file.toFile());
+        for (Resource resource : RESOURCES) {
+            JsonNode saved = snapshot.path(resource.path());
+            List<ObjectNode> entities = new ArrayList<>();
+            saved.path("entities").forEach(entity -> entities.add((ObjectNode) entity));
+            EntityStore store = new EntityStore(resource, entities);
+            store.advanceNextId(saved.path("nextId").asInt(1));
+            stores.put(resource, store);
+        }
+        return snapshot.get("seq").longValue();
+    }
+
+    private static Path latestSnapshot(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(MutationJournal::isSnapshot)
+                    .max((a, b) -> Long.compare(snapshotSeq(a), snapshotSeq(b)))
+                    .orElse(null);
+        }
+    }
+
+    private static boolean isSnapshot(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+    }
+
+    private static long snapshotSeq(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    // Record payload: operation, resource ordinal, id, then the entity's JSON for a PUT
+    private static byte[] record(byte operation, Resource resource, int id, byte[] entity) {
+        return ByteBuffer.allocate(2 + Integer.BYTES + entity.length)
+                .put(operation).put((byte) resource.ordinal()).putInt(id).put(entity)
+                .array();
+    }
+
+    private static void replay(Map<Resource, EntityStore> stores, MutationLog.Entry entry) {
+        ByteBuffer payload = entry.payload();
+        byte operation = payload.get();
+        EntityStore store = stores.get(RESOURCES[payload.get()]);
+        int id = payload.getInt();
+        if (operation == DELETE) {
+            store.delete(id);
+            return;
+        }
+        byte[] entity = new byte[payload.remaining()];
+        payload.get(entity);
+        try {
+            store.update(id, (ObjectNode) MAPPER.readTree(entity));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable entity in mutation " + entry.seq(), e);
+        }
+    }
+
+    private static byte[] bytes(ObjectNode entity) {
+        try {
+            return MAPPER.writeValueAsBytes(entity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
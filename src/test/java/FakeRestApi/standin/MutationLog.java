@@ -0,0 +1,301 @@
+package FakeRestApi.standin;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// An append-only log of opaque records in memory-mapped segment files, mutations-<first seq>.log.
+// Appending copies the record into the mapping and returns its sequence number; a single commit
+// thread then forces everything appended since its last force in one call, so callers waiting in
+// awaitDurable() share one flush however many of them arrive meanwhile (group commit). Records
+// are length, CRC32C, sequence number and payload; the zero-filled remainder of a segment ends it,
+// and on open a record that fails its checksum marks where an interrupted write stopped.
+final class MutationLog implements AutoCloseable {
+    private static final int SEGMENT_SIZE = 16 << 20;
+    // length and CRC, then the sequence number the CRC covers along with the payload
+    private static final int HEADER = Integer.BYTES * 2 + Long.BYTES;
+    private static final String PREFIX = "mutations-";
+    private static final String SUFFIX = ".log";
+
+    record Entry(long seq, ByteBuffer payload) {
+    }
+
+    private final Path dir;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition committed = lock.newCondition();
+    private final Thread committer;
+
+    // Guarded by lock
+    private MappedByteBuffer segment;
+    private long segmentFirstSeq;
+    private int position;
+    private int forcedPosition;
+    private long lastSeq;
+    private long durableSeq;
+    private IOException failure;
+    private boolean closed;
+
+    private MutationLog(Path dir) {
+        this.dir = dir;
+        this.committer = Thread.ofPlatform().daemon().name("mutation-log-commit").unstarted(this::commitLoop);
+    }
+
+    // Opens the log in `dir`, passing every intact record after `afterSeq` to `replay` in order
+    static MutationLog open(Path dir, long afterSeq, Consumer<Entry> replay) throws IOException {
+        MutationLog log = new MutationLog(dir);
+        List<Path> segments = segments(dir);
+        log.lastSeq = afterSeq;
+        for (int i = 0; i < segments.size(); i++) {
+            Path file = segments.get(i);
+            MappedByteBuffer mapped = map(file, Files.size(file));
+            int end = log.replay(mapped, firstSeq(file), afterSeq, replay);
+            if (i == segments.size() - 1) {
+                clearFrom(mapped, end);
+                log.segment = mapped;
+                log.segmentFirstSeq = firstSeq(file);
+                log.position = end;
+                log.forcedPosition = end;
+            }
+        }
+        if (log.segment == null) {
+            log.startSegment(afterSeq + 1, SEGMENT_SIZE);
+        }
+        log.durableSeq = log.lastSeq;
+        log.committer.start();
+        return log;
+    }
+
+    // Appends the record and returns its sequence number; it is durable once awaitDurable returns
+    long append(byte[] payload) throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Mutation log is closed");
+            }
+            int size = HEADER + payload.length;
+            // Keep room for the zero length that ends the segment
+            if (position + size + Integer.BYTES > segment.capacity()) {
+                roll(size + Integer.BYTES);
+            }
+            long seq = ++lastSeq;
+            CRC32C crc = new CRC32C();
+            crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, seq));
+            crc.update(payload);
+            segment.putInt(position, Long.BYTES + payload.length)
+                    .putInt(position + Integer.BYTES, (int) crc.getValue())
+                    .putLong(position + Integer.BYTES * 2, seq)
+                    .put(position + HEADER, payload);
+            position += size;
+            appended.signal();
+            return seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void awaitDurable(long seq) throws IOException {
+        lock.lock();
+        try {
+            while (durableSeq < seq && failure == null) {
+                committed.awaitUninterruptibly();
+            }
+            if (durableSeq < seq) {
+                throw new IOException("Could not commit the mutation log", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long lastSeq() {
+        lock.lock();
+        try {
+            return lastSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Continues the log in a new segment and returns its first sequence number; the segments
+    // before it hold exactly the records up to lastSeq() and can be dropped once snapshotted
+    long roll() throws IOException {
+        lock.lock();
+        try {
+            roll(SEGMENT_SIZE);
+            return segmentFirstSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void deleteSegmentsBefore(long firstSeq) throws IOException {
+        for (Path file : segments(dir)) {
+            if (firstSeq(file) < firstSeq) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            segment.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void commitLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            int from;
+            int to;
+            long upTo;
+            lock.lock();
+            try {
+                while (durableSeq == lastSeq && !closed) {
+                    appended.awaitUninterruptibly();
+                }
+                if (durableSeq == lastSeq) {
+                    return;
+                }
+                target = segment;
+                from = forcedPosition;
+                to = position;
+                upTo = lastSeq;
+            } finally {
+                lock.unlock();
+            }
+            // Outside the lock, so appends carry on and join the next commit
+            try {
+                target.force(from, to - from);
+            } catch (UncheckedIOException e) {
+                lock.lock();
+                try {
+                    failure = e.getCause();
+                    committed.signalAll();
+                    return;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            lock.lock();
+            try {
+                if (target == segment) {
+                    forcedPosition = Math.max(forcedPosition, to);
+                }
+                durableSeq = Math.max(durableSeq, upTo);
+                committed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Called with the lock held. The old segment is forced whole, so everything in it is durable.
+    private void roll(int minimumSize) throws IOException {
+        segment.force();
+        durableSeq = lastSeq;
+        committed.signalAll();
+        startSegment(lastSeq + 1, Math.max(SEGMENT_SIZE, minimumSize));
+    }
+
+    private void startSegment(long firstSeq, int size) throws IOException {
+        segment = map(dir.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX)), size);
+        segmentFirstSeq = firstSeq;
+        position = 0;
+        forcedPosition = 0;
+    }
+
+    // Returns where the intact records of the segment end. A record must also carry the next
+    // sequence number, so one left over from before an earlier crash is never taken for a new one.
+    private int replay(MappedByteBuffer mapped, long firstSeq, long afterSeq, Consumer<Entry> replay) {
+        int at = 0;
+        long expected = firstSeq;
+        CRC32C crc = new CRC32C();
+        while (at + HEADER <= mapped.capacity()) {
+            int length = mapped.getInt(at);
+            if (length < Long.BYTES || at + Integer.BYTES * 2 + length > mapped.capacity()) {
+                break;
+            }
+            crc.reset();
+            crc.update(mapped.slice(at + Integer.BYTES * 2, length));
+            if ((int) crc.getValue() != mapped.getInt(at + Integer.BYTES)) {
+                break;
+            }
+            long seq = mapped.getLong(at + Integer.BYTES * 2);
+            if (seq != expected++) {
+                break;
+            }
+            if (seq > afterSeq) {
+                replay.accept(new Entry(seq, mapped.slice(at + HEADER, length - Long.BYTES).asReadOnlyBuffer()));
+            }
+            lastSeq = Math.max(lastSeq, seq);
+            at += Integer.BYTES * 2 + length;
+        }
+        return at;
+    }
+
+    // Zeroes whatever an interrupted append left after the intact records; pages that are already
+    // zero are only read, not dirtied
+    private static void clearFrom(MappedByteBuffer mapped, int from) {
+        ByteBuffer zeros = ByteBuffer.allocate(64 << 10);
+        for (int at = from; at < mapped.capacity(); at += zeros.capacity()) {
+            int length = Math.min(zeros.capacity(), mapped.capacity() - at);
+            if (mapped.slice(at, length).mismatch(zeros.slice(0, length)) >= 0) {
+                mapped.put(at, zeros, 0, length);
+            }
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> segments = new ArrayList<>(files.filter(MutationLog::isSegment).toList());
+            segments.sort((a, b) -> Long.compare(firstSeq(a), firstSeq(b)));
+            return segments;
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static long firstSeq(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
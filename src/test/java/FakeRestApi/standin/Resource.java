@@ -0,0 +1,160 @@
+package FakeRestApi.standin;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+// The five /api/v1 resources of FakeRESTApi: their route name, field shape and seed data.
+// The seed data follows the hosted service (30 activities, 200 books with 1-3 authors and one
+// cover photo each, 10 users) so the existing tests see the same ids and field formats.
+public enum Resource {
+    ACTIVITIES("Activities", 30) {
+        @Override
+        public List<ObjectNode> seed(OffsetDateTime now) {
+            return numbered(id -> node()
+                    .put("id", id)
+                    .put("title", "Activity " + id)
+                    .put("dueDate", DATE_FORMAT.format(now.plusHours(id)))
+                    .put("completed", id % 2 == 0));
+        }
+    },
+    AUTHORS("Authors", 0) {
+        @Override
+        public List<ObjectNode> seed(OffsetDateTime now) {
+            List<ObjectNode> authors = new ArrayList<>();
+            int id = 1;
+            for (int idBook = 1; idBook <= BOOKS.seedCount; idBook++) {
+                for (int i = 0; i <= idBook % 3; i++, id++) {
+                    authors.add(node()
+                            .put("id", id)
+                            .put("idBook", idBook)
+                            .put("firstName", "First Name " + id)
+                            .put("lastName", "Last Name " + id));
+                }
+            }
+            return authors;
+        }
+    },
+    BOOKS("Books", 200) {
+        @Override
+        public List<ObjectNode> seed(OffsetDateTime now) {
+            return numbered(id -> node()
+                    .put("id", id)
+                    .put("title", "Book " + id)
+                    .put("description", LOREM)
+                    .put("pageCount", id * 100)
+                    .put("excerpt", LOREM + "\n" + LOREM + "\n" + LOREM)
+                    .put("publishDate", DATE_FORMAT.format(now.minusDays(id))));
+        }
+    },
+    COVER_PHOTOS("CoverPhotos", 200) {
+        @Override
+        public List<ObjectNode> seed(OffsetDateTime now) {
+            return numbered(id -> node()
+                    .put("id", id)
+                    .put("idBook", id)
+                    .put("url", "https://placeholdit.imgix.net/~text?txtsize=33&txt=Book " + id + "&w=250&h=350"));
+        }
+    },
+    USERS("Users", 10) {
+        @Override
+        public List<ObjectNode> seed(OffsetDateTime now) {
+            return numbered(id -> node()
+                    .put("id", id)
+                    .put("userName", "User " + id)
+                    .put("password", "Password" + id));
+        }
+    };
+
+    static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static final String LOREM = "Lorem lorem lorem. Lorem lorem lorem. Lorem lorem lorem. "
+            + "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt "
+            + "ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation "
+            + "ullamco laboris nisi ut aliquip ex ea commodo consequat.";
+
+    private final String path;
+    private final int seedCount;
+    private final Map<String, FieldType> fields;
+
+    Resource(String path, int seedCount) {
+        this.path = path;
+        this.seedCount = seedCount;
+        this.fields = Collections.unmodifiableMap(fieldsOf(path));
+    }
+
+    // Route segment under /api/v1, e.g. "CoverPhotos"
+    public String path() {
+        return path;
+    }
+
+    // Field names and types in the order the service serializes them
+    public Map<String, FieldType> fields() {
+        return fields;
+    }
+
+    public static Resource fromPath(String segment) {
+        for (Resource resource : values()) {
+            if (resource.path.equalsIgnoreCase(segment)) {
+                return resource;
+            }
+        }
+        return null;
+    }
+
+    public abstract List<ObjectNode> seed(OffsetDateTime now);
+
+    // One entity for each id from 1 to the seed count
+    List<ObjectNode> numbered(IntFunction<ObjectNode> entity) {
+        List<ObjectNode> entities = new ArrayList<>(seedCount);
+        for (int id = 1; id <= seedCount; id++) {
+            entities.add(entity.apply(id));
+        }
+        return entities;
+    }
+
+    private static ObjectNode node() {
+        return JsonNodeFactory.instance.objectNode();
+    }
+
+    private static Map<String, FieldType> fieldsOf(String path) {
+        Map<String, FieldType> fields = new LinkedHashMap<>();
+        fields.put("id", FieldType.INT);
+        switch (path) {
+            case "Activities" -> {
+                fields.put("title", FieldType.STRING);
+                fields.put("dueDate", FieldType.DATE_TIME);
+                fields.put("completed", FieldType.BOOLEAN);
+            }
+            case "Authors" -> {
+                fields.put("idBook", FieldType.INT);
+                fields.put("firstName", FieldType.STRING);
+                fields.put("lastName", FieldType.STRING);
+            }
+            case "Books" -> {
+                fields.put("title", FieldType.STRING);
+                fields.put("description", FieldType.STRING);
+                fields.put("pageCount", FieldType.INT);
+                fields.put("excerpt", FieldType.STRING);
+                fields.put("publishDate", FieldType.DATE_TIME);
+            }
+            case "CoverPhotos" -> {
+                fields.put("idBook", FieldType.INT);
+                fields.put("url", FieldType.STRING);
+            }
+            case "Users" -> {
+                fields.put("userName", FieldType.STRING);
+                fields.put("password", FieldType.STRING);
+            }
+            default -> throw new IllegalArgumentException("Unknown resource " + path);
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,497 @@
+package FakeRestApi.standin;
+
+import FakeRestApi.support.EndpointMetrics;
+import FakeRestApi.support.EndpointMetrics.Endpoint;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32C;
+
+// In-process stand-in for https://fakerestapi.azurewebsites.net serving all five /api/v1 resources.
+// Status codes and problem bodies follow the hosted ASP.NET service (400 validation problems,
+// 404 for unknown ids, 415 without a JSON content type, DELETE always 200) so the suite behaves the
+// same against either target. Like the hosted service it echoes mutations without keeping them
+// unless started stateful, and started with a data directory it also keeps them across restarts
+// (see MutationJournal). Requests are handled on virtual threads. With a FaultProfile injected,
+// requests are held back for a delay drawn from recorded timings, on a TimerWheel rather than a
+// sleeping thread, and some are failed with a 503 or a dropped connection.
+public class StandInServer implements AutoCloseable {
+    static final String API_PREFIX = "/api/v1/";
+    private static final String JSON = "application/json; charset=utf-8; v=1.0";
+    private static final String PROBLEM_JSON = "application/problem+json; charset=utf-8";
+
+    // Load runs open many connections at once; the JDK default accept backlog is 50
+    private static final int BACKLOG = 1024;
+    // Like System.Text.Json, anything after the body's JSON value makes it invalid
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+
+    static {
+        // Without TCP_NODELAY the separately written response headers and body run into Nagle's
+        // algorithm and delayed ACKs, adding ~40 ms to every exchange on loopback. The JDK server
+        // reads this property once, when its configuration class loads.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean stateful;
+    private final MutationJournal journal;
+    private final Map<Resource, EntityStore> stores = new EnumMap<>(Resource.class);
+    // Created with the first profile; written before faults, which publishes it to handle()
+    private TimerWheel wheel;
+    private volatile FaultProfile faults;
+
+    private StandInServer(HttpServer server, ExecutorService executor, boolean stateful, MutationJournal journal) {
+        this.server = server;
+        this.executor = executor;
+        this.stateful = stateful;
+        this.journal = journal;
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+        for (Resource resource : Resource.values()) {
+            stores.put(resource, journal != null ? journal.store(resource) : new EntityStore(resource, resource.seed(now)));
+        }
+    }
+
+    // Starts the server on the loopback interface; port 0 picks a free port
+    public static StandInServer start(int port, boolean stateful) throws IOException {
+        return start(port, stateful, null);
+    }
+
+    // Starts a stateful server whose entities persist in dataDir, restoring what is already there
+    public static StandInServer start(int port, Path dataDir) throws IOException {
+        return start(port, true, MutationJournal.open(dataDir, OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS)));
+    }
+
+    private static StandInServer start(int port, boolean stateful, MutationJournal journal) throws IOException {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        StandInServer standIn = new StandInServer(httpServer, executor, stateful, journal);
+        httpServer.createContext(API_PREFIX, standIn::handle);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        return standIn;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        // <port> [stateful] [data directory]
+        StandInServer standIn = args.length > 2 ? start(port, Path.of(args[2]))
+                : start(port, args.length > 1 && Boolean.parseBoolean(args[1]));
+        FaultProfile faults = FaultProfile.fromSystemProperties();
+        if (faults != null) {
+            standIn.injectFaults(faults);
+            System.out.println("Injecting " + faults);
+        }
+        System.out.println("FakeRESTApi stand-in listening on " + standIn.baseUri());
+    }
+
+    public String baseUri() {
+        return "http://localhost:" + port();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public EntityStore store(Resource resource) {
+        return stores.get(resource);
+    }
+
+    public boolean isStateful() {
+        return stateful;
+    }
+
+    // Applies to requests arriving from now on; FaultProfile.none() turns injection off again
+    public synchronized void injectFaults(FaultProfile profile) {
+        if (wheel == null) {
+            wheel = new TimerWheel("stand-in-delays-" + port());
+        }
+        faults = profile;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        synchronized (this) {
+            if (wheel != null) {
+                wheel.close();
+            }
+        }
+        executor.shutdownNow();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not close the stand-in's mutation log", e);
+            }
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        FaultProfile profile = faults;
+        if (profile == null) {
+            serve(exchange);
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        FaultProfile.Fault fault = profile.fault(random);
+        long delay = profile.delayNanos(new Endpoint(exchange.getRequestMethod(),
+                EndpointMetrics.template(exchange.getRequestURI().getPath())), random);
+        if (delay == 0) {
+            serve(exchange, fault);
+            return;
+        }
+        // The handler returns at once and leaves the exchange open; the wheel hands it back to the
+        // executor when the delay is up
+        wheel.schedule(delay, () -> {
+            try {
+                executor.execute(() -> serveDelayed(exchange, fault));
+            } catch (RejectedExecutionException closed) {
+                exchange.close();
+            }
+        });
+    }
+
+    private void serveDelayed(HttpExchange exchange, FaultProfile.Fault fault) {
+        try {
+            serve(exchange, fault);
+        } catch (IOException e) {
+            // The client is gone; there is no one left to answer
+            exchange.close();
+        }
+    }
+
+    private void serve(HttpExchange exchange, FaultProfile.Fault fault) throws IOException {
+        switch (fault) {
+            // Closed before any response headers, the JDK server drops the connection
+            case RESET -> exchange.close();
+            case ERROR -> {
+                try (exchange) {
+                    send(exchange, 503, null, null);
+                }
+            }
+            case NONE -> serve(exchange);
+        }
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (Problem problem) {
+                sendProblem(exchange, problem);
+            } catch (RuntimeException e) {
+                send(exchange, 500, PROBLEM_JSON, MAPPER.writeValueAsBytes(Map.of(
+                        "title", "An error occurred while processing your request.",
+                        "status", 500,
+                        "detail", String.valueOf(e))));
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException, Problem {
+        String method = exchange.getRequestMethod();
+        String[] segments = exchange.getRequestURI().getPath().substring(API_PREFIX.length()).split("/");
+        Resource resource = Resource.fromPath(segments[0]);
+        if (resource == null) {
+            send(exchange, 404, null, null);
+            return;
+        }
+        EntityStore store = stores.get(resource);
+
+        if (segments.length == 1) {
+            switch (method) {
+                case "GET" -> sendCacheable(exchange, list(store, query(exchange)));
+                case "POST" -> {
+                    ObjectNode entity = bind(resource, exchange);
+                    sendJson(exchange, 200, stateful ? create(store, entity) : entity);
+                }
+                default -> methodNotAllowed(exchange, "GET, POST");
+            }
+        } else if (segments.length == 2) {
+            int id = intParameter("id", segments[1]);
+            switch (method) {
+                case "GET" -> {
+                    ObjectNode entity = store.get(id);
+                    if (entity == null) {
+                        throw new Problem(404, null);
+                    }
+                    sendCacheable(exchange, entity);
+                }
+                case "PUT" -> {
+                    ObjectNode entity = bind(resource, exchange);
+                    sendJson(exchange, 200, stateful ? update(store, id, entity) : entity);
+                }
+                case "DELETE" -> {
+                    if (stateful) {
+                        delete(store, id);
+                    }
+                    send(exchange, 200, null, null);
+                }
+                default -> methodNotAllowed(exchange, "GET, PUT, DELETE");
+            }
+        } else if (segments.length == 4 && isByBookRoute(resource, segments) && method.equals("GET")) {
+            // GET /api/v1/Authors/authors/books/{idBook} and /api/v1/CoverPhotos/books/covers/{idBook}
+            int idBook = intParameter("idBook", segments[3]);
+            sendCacheable(exchange, store.list(entity -> entity.get("idBook").intValue() == idBook));
+        } else {
+            send(exchange, 404, null, null);
+        }
+    }
+
+    private ObjectNode create(EntityStore store, ObjectNode entity) {
+        return journal != null ? journal.create(store, entity) : store.create(entity);
+    }
+
+    private ObjectNode update(EntityStore store, int id, ObjectNode entity) {
+        return journal != null ? journal.update(store, id, entity) : store.update(id, entity);
+    }
+
+    private void delete(EntityStore store, int id) {
+        if (journal != null) {
+            journal.delete(store, id);
+        } else {
+            store.delete(id);
+        }
+    }
+
+    private static boolean isByBookRoute(Resource resource, String[] segments) {
+        return switch (resource) {
+            case AUTHORS -> segments[1].equalsIgnoreCase("authors") && segments[2].equalsIgnoreCase("books");
+            case COVER_PHOTOS -> segments[1].equalsIgnoreCase("books") && segments[2].equalsIgnoreCase("covers");
+            default -> false;
+        };
+    }
+
+    // The Activities list supports ?date=yyyy-MM-dd filtering on dueDate and 1-based ?page=&size= paging
+    private static List<ObjectNode> list(EntityStore store, Map<String, String> query) throws Problem {
+        if (store.resource() != Resource.ACTIVITIES) {
+            return store.list();
+        }
+        List<ObjectNode> activities = store.list();
+        String date = query.get("date");
+        if (date != null) {
+            LocalDate day = FieldType.parseDate(date);
+            if (day == null) {
+                throw Problem.invalidValue("date", date);
+            }
+            activities = store.list(activity -> day.equals(FieldType.parseDate(activity.get("dueDate").asText())));
+        }
+        String size = query.get("size");
+        if (size != null) {
+            int pageSize = Math.max(0, intParameter("size", size));
+            int page = Math.max(1, query.containsKey("page") ? intParameter("page", query.get("page")) : 1);
+            long from = Math.min((long) (page - 1) * pageSize, activities.size());
+            activities = activities.subList((int) from, (int) Math.min(from + pageSize, activities.size()));
+        }
+        return activities;
+    }
+
+    // Binds a request body the way the hosted service does: JSON content type required, no type
+    // coercion, unknown properties ignored and missing ones left at their defaults
+    private static ObjectNode bind(Resource resource, HttpExchange exchange) throws IOException, Problem {
+        if (!isJson(exchange.getRequestHeaders().getFirst("Content-Type"))) {
+            throw new Problem(415, null);
+        }
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readAllBytes();
+        }
+        if (body.length == 0) {
+            throw Problem.validation("", "A non-empty request body is required.");
+        }
+        JsonNode json;
+        try {
+            json = MAPPER.readTree(body);
+        } catch (JsonProcessingException e) {
+            // Exceeded read limits, such as the nesting depth, come without a location
+            JsonLocation location = e.getLocation();
+            throw Problem.validation("$", "The JSON value could not be parsed. Path: $" + (location == null ? "."
+                    : " | LineNumber: " + (location.getLineNr() - 1) + " | BytePositionInLine: " + location.getColumnNr() + "."));
+        }
+        if (json == null || !json.isObject()) {
+            throw Problem.validation("$", "The JSON value could not be converted to FakeRestApi.Web.V1.Models."
+                    + resource.path() + ". Path: $.");
+        }
+
+        Map<String, JsonNode> provided = new HashMap<>();
+        json.fields().forEachRemaining(field -> provided.put(field.getKey().toLowerCase(Locale.ROOT), field.getValue()));
+        ObjectNode entity = MAPPER.createObjectNode();
+        Map<String, List<String>> errors = new LinkedHashMap<>();
+        resource.fields().forEach((name, type) -> {
+            JsonNode value = provided.get(name.toLowerCase(Locale.ROOT));
+            if (value == null) {
+                entity.set(name, type.defaultValue());
+            } else if (type.accepts(value)) {
+                entity.set(name, value);
+            } else {
+                errors.put("$." + name, List.of("The JSON value could not be converted to " + type.clrName()
+                        + ". Path: $." + name + "."));
+            }
+        });
+        if (!errors.isEmpty()) {
+            throw new Problem(400, errors);
+        }
+        return entity;
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String mediaType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        return mediaType.equals("application/json") || mediaType.equals("text/json") || mediaType.endsWith("+json");
+    }
+
+    // Int32 binding takes ASCII digits only, where parseInt also takes other Unicode digits
+    // (Arabic-Indic, fullwidth, ...)
+    private static int intParameter(String name, String value) throws Problem {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c > '9' && Character.isDigit(c)) {
+                throw Problem.invalidValue(name, value);
+            }
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw Problem.invalidValue(name, value);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            String[] parts = pair.split("=", 2);
+            String name = URLDecoder.decode(parts[0], StandardCharsets.UTF_8).toLowerCase(Locale.ROOT);
+            query.putIfAbsent(name, parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return query;
+    }
+
+    private static void methodNotAllowed(HttpExchange exchange, String allow) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allow);
+        send(exchange, 405, null, null);
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        send(exchange, status, JSON, MAPPER.writeValueAsBytes(body));
+    }
+
+    // Unlike the hosted service, GET responses carry an ETag and a matching If-None-Match gets a
+    // 304, so client-side caches can revalidate instead of fetching the body again
+    private static void sendCacheable(HttpExchange exchange, Object body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        String etag = "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(bytes.length) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            send(exchange, 304, null, null);
+            return;
+        }
+        send(exchange, 200, JSON, bytes);
+    }
+
+    private static void sendProblem(HttpExchange exchange, Problem problem) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("type", problem.type());
+        body.put("title", problem.title());
+        body.put("status", problem.status);
+        if (problem.errors != null) {
+            body.put("errors", problem.errors);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        body.put("traceId", String.format("00-%016x%016x-%016x-00", random.nextLong(), random.nextLong(), random.nextLong()));
+        send(exchange, problem.status, PROBLEM_JSON, MAPPER.writeValueAsBytes(body));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    // RFC 7807 problem details, as produced by ASP.NET for client errors
+    static class Problem extends Exception {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+        // Never serialized; problems only travel up the handler's own stack
+        final transient Map<String, List<String>> errors;
+
+        Problem(int status, Map<String, List<String>> errors) {
+            super(null, null, false, false);
+            this.status = status;
+            this.errors = errors;
+        }
+
+        static Problem validation(String key, String message) {
+            return new Problem(400, Map.of(key, List.of(message)));
+        }
+
+        static Problem invalidValue(String name, String value) {
+            return validation(name, "The value '" + value + "' is not valid.");
+        }
+
+        String type() {
+            return switch (status) {
+                case 400 -> "https://tools.ietf.org/html/rfc7231#section-6.5.1";
+                case 404 -> "https://tools.ietf.org/html/rfc7231#section-6.5.4";
+                case 415 -> "https://tools.ietf.org/html/rfc7231#section-6.5.13";
+                default -> "about:blank";
+            };
+        }
+
+        String title() {
+            return switch (status) {
+                case 400 -> "One or more validation errors occurred.";
+                case 404 -> "Not Found";
+                case 415 -> "Unsupported Media Type";
+                default -> "Error";
+            };
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package FakeRestApi.standin;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+// An int-keyed concurrent map that never boxes its keys. Keys are spread by hash over 64 stripes,
+// each an open-addressing table (linear probing, backward-shift deletion) behind its own
+// StampedLock: writes to different stripes never contend, and get() is an optimistic read that
+// takes no lock at all unless a write to the same stripe overlapped it. values() holds every
+// stripe's read lock at once, so it is a consistent point-in-time view, in key order; it is
+// cached until the next write, so list requests between writes share one.
+final class StripedIntMap<V> {
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final class Stripe {
+        final StampedLock lock = new StampedLock();
+        // Replaced whole on resize; read without the lock only under an optimistic stamp
+        int[] keys = new int[INITIAL_CAPACITY];
+        Object[] values = new Object[INITIAL_CAPACITY];
+        int size;
+        // Only written under the write lock
+        volatile long modifications;
+    }
+
+    private record Snapshot<V>(long version, List<V> values) {
+    }
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private volatile Snapshot<V> snapshot;
+
+    StripedIntMap() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int hash = hash(key);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        long stamp = stripe.lock.tryOptimisticRead();
+        Object value = find(stripe.keys, stripe.values, key, hash);
+        if (!stripe.lock.validate(stamp)) {
+            stamp = stripe.lock.readLock();
+            try {
+                value = find(stripe.keys, stripe.values, key, hash);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return (V) value;
+    }
+
+    // Returns the value it replaced, or null
+    @SuppressWarnings("unchecked")
+    V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        int hash = hash(key);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        long stamp = stripe.lock.writeLock();
+        try {
+            int mask = stripe.keys.length - 1;
+            int slot = (hash >>> STRIPE_BITS) & mask;
+            while (stripe.values[slot] != null && stripe.keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            Object previous = stripe.values[slot];
+            stripe.keys[slot] = key;
+            stripe.values[slot] = value;
+            if (previous == null && ++stripe.size > stripe.keys.length * 3 / 4) {
+                resize(stripe);
+            }
+            stripe.modifications++;
+            return (V) previous;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        int hash = hash(key);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        long stamp = stripe.lock.writeLock();
+        try {
+            int[] keys = stripe.keys;
+            Object[] values = stripe.values;
+            int mask = keys.length - 1;
+            int slot = (hash >>> STRIPE_BITS) & mask;
+            while (values[slot] != null && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            Object previous = values[slot];
+            if (previous == null) {
+                return null;
+            }
+            // Shift back the entries after it that probed past its slot, so no lookup stops early
+            for (int next = (slot + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+                int home = (hash(keys[next]) >>> STRIPE_BITS) & mask;
+                boolean staysPut = slot <= next ? slot < home && home <= next : slot < home || home <= next;
+                if (!staysPut) {
+                    keys[slot] = keys[next];
+                    values[slot] = values[next];
+                    slot = next;
+                }
+            }
+            values[slot] = null;
+            stripe.size--;
+            stripe.modifications++;
+            return (V) previous;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    // Every value in key order, as of one instant; the list is shared and read-only
+    List<V> values() {
+        Snapshot<V> cached = snapshot;
+        if (cached != null && cached.version() == version()) {
+            return cached.values();
+        }
+        long[] stamps = new long[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stamps[i] = stripes[i].lock.readLock();
+        }
+        try {
+            long version = version();
+            int size = 0;
+            for (Stripe stripe : stripes) {
+                size += stripe.size;
+            }
+            // Key in the high half, so sorting orders by key; the low half finds the value again
+            long[] order = new long[size];
+            Object[] found = new Object[size];
+            int n = 0;
+            for (Stripe stripe : stripes) {
+                for (int slot = 0; slot < stripe.values.length; slot++) {
+                    if (stripe.values[slot] != null) {
+                        order[n] = (long) stripe.keys[slot] << 32 | n;
+                        found[n++] = stripe.values[slot];
+                    }
+                }
+            }
+            Arrays.sort(order);
+            Object[] sorted = new Object[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = found[(int) order[i]];
+            }
+            @SuppressWarnings("unchecked")
+            List<V> values = (List<V>) Collections.unmodifiableList(Arrays.asList(sorted));
+            snapshot = new Snapshot<>(version, values);
+            return values;
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                stripes[i].lock.unlockRead(stamps[i]);
+            }
+        }
+    }
+
+    // Changes whenever any stripe does, as each stripe's count only grows
+    private long version() {
+        long version = 0;
+        for (Stripe stripe : stripes) {
+            version += stripe.modifications;
+        }
+        return version;
+    }
+
+    // Also called under an optimistic stamp, where the table may be changing: bounded by its
+    // length, and the caller discards the answer unless the stamp validates
+    private static Object find(int[] keys, Object[] values, int key, int hash) {
+        int mask = Math.min(keys.length, values.length) - 1;
+        int slot = (hash >>> STRIPE_BITS) & mask;
+        for (int probes = 0; probes <= mask; probes++, slot = (slot + 1) & mask) {
+            Object value = values[slot];
+            if (value == null) {
+                return null;
+            }
+            if (keys[slot] == key) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static void resize(Stripe stripe) {
+        int[] keys = new int[stripe.keys.length * 2];
+        Object[] values = new Object[keys.length];
+        int mask = keys.length - 1;
+        for (int old = 0; old < stripe.values.length; old++) {
+            if (stripe.values[old] != null) {
+                int slot = (hash(stripe.keys[old]) >>> STRIPE_BITS) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = stripe.keys[old];
+                values[slot] = stripe.values[old];
+            }
+        }
+        stripe.keys = keys;
+        stripe.values = values;
+    }
+
+    // Murmur3's finalizer, so that consecutive ids spread over stripes and slots
+    private static int hash(int key) {
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
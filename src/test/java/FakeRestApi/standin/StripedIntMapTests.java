@@ -0,0 +1,88 @@
+package FakeRestApi.standin;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class StripedIntMapTests {
+
+    @Test
+    public void behavesLikeASortedMapThroughRandomPutsAndRemoves() {
+        StripedIntMap<String> map = new StripedIntMap<>();
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            // A narrow key range, negative keys included, so removes hit long probe chains
+            int key = random.nextInt(4000) - 1000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(map.remove(key), expected.remove(key), "remove " + key);
+            } else {
+                assertEquals(map.put(key, "v" + i), expected.put(key, "v" + i), "put " + key);
+            }
+            if (i % 10_000 == 0) {
+                assertEquals(map.values(), new ArrayList<>(expected.values()));
+            }
+        }
+        for (int key = -1000; key < 3000; key++) {
+            assertEquals(map.get(key), expected.get(key), "get " + key);
+        }
+        assertEquals(map.values(), new ArrayList<>(expected.values()));
+    }
+
+    @Test
+    public void readersNeverMissAnEntryWhileOtherStripesAreWritten() throws Exception {
+        StripedIntMap<Integer> map = new StripedIntMap<>();
+        for (int key = 0; key < 1000; key++) {
+            map.put(key, key);
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService threads = Executors.newFixedThreadPool(3);
+        try {
+            // Keys from 1000 up come and go, growing and shrinking the tables under the readers
+            Future<?> writer = threads.submit(() -> {
+                for (int round = 0; round < 200; round++) {
+                    for (int key = 1000; key < 3000; key++) {
+                        map.put(key, key);
+                    }
+                    for (int key = 1000; key < 3000; key++) {
+                        map.remove(key);
+                    }
+                }
+                writing.set(false);
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(threads.submit(() -> {
+                    while (writing.get()) {
+                        for (int key = 0; key < 1000; key++) {
+                            assertEquals(map.get(key), Integer.valueOf(key));
+                        }
+                        List<Integer> values = map.values();
+                        for (int i = 1; i < values.size(); i++) {
+                            assertTrue(values.get(i - 1) < values.get(i), "snapshot out of order");
+                        }
+                    }
+                }));
+            }
+            writer.get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        assertEquals(map.values().size(), 1000);
+        assertNull(map.get(1500));
+    }
+}
@@ -0,0 +1,121 @@
+package FakeRestApi.standin;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// A hashed timer wheel: one platform thread advances a ring of buckets every millisecond, and a
+// task waits in the bucket of its deadline together with the number of full turns still to go.
+// Scheduling is O(1) from any thread and a pending task costs one small object instead of a
+// sleeping thread, so thousands of delayed responses are cheap. Deadlines are met to within a
+// tick. Tasks run on the wheel's thread and must hand anything slow to an executor. The thread
+// parks while nothing is pending.
+final class TimerWheel implements AutoCloseable {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int BUCKETS = 512;
+
+    private static final class Timeout {
+        final long deadline;
+        final Runnable task;
+        long rounds;
+        Timeout next;
+
+        Timeout(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+    }
+
+    private final long origin = System.nanoTime();
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Thread ticker;
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    // Only touched by the ticker thread
+    private final Timeout[] buckets = new Timeout[BUCKETS];
+    private long tick;
+    private int pending;
+
+    TimerWheel(String name) {
+        ticker = Thread.ofPlatform().daemon().name(name).start(this::run);
+    }
+
+    // Runs the task on the wheel's thread once the delay has passed
+    void schedule(long delayNanos, Runnable task) {
+        if (closed) {
+            throw new RejectedExecutionException("Timer wheel is closed");
+        }
+        scheduled.add(new Timeout(System.nanoTime() - origin + Math.max(0, delayNanos), task));
+        if (idle) {
+            LockSupport.unpark(ticker);
+        }
+    }
+
+    // Pending tasks never run
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(ticker);
+    }
+
+    private void run() {
+        while (!closed) {
+            if (pending == 0 && scheduled.isEmpty()) {
+                idle = true;
+                if (scheduled.isEmpty() && !closed) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                // Nothing was pending, so the ticks slept through had nothing to expire
+                tick = Math.max(tick, (System.nanoTime() - origin) / TICK_NANOS);
+                continue;
+            }
+            // Tick t is processed once (t + 1) ticks have passed; when behind, catches up without sleeping
+            long wait;
+            while ((wait = (tick + 1) * TICK_NANOS - (System.nanoTime() - origin)) > 0 && !closed) {
+                LockSupport.parkNanos(this, wait);
+            }
+            place();
+            expire((int) (tick & (BUCKETS - 1)));
+            tick++;
+        }
+    }
+
+    private void place() {
+        for (Timeout timeout; (timeout = scheduled.poll()) != null; ) {
+            // The first tick processed at or after the deadline, and never one already processed
+            long due = Math.max(tick, (timeout.deadline + TICK_NANOS - 1) / TICK_NANOS - 1);
+            int bucket = (int) (due & (BUCKETS - 1));
+            timeout.rounds = (due - tick) / BUCKETS;
+            timeout.next = buckets[bucket];
+            buckets[bucket] = timeout;
+            pending++;
+        }
+    }
+
+    private void expire(int bucket) {
+        Timeout previous = null;
+        for (Timeout timeout = buckets[bucket]; timeout != null; timeout = timeout.next) {
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+                previous = timeout;
+                continue;
+            }
+            if (previous == null) {
+                buckets[bucket] = timeout.next;
+            } else {
+                previous.next = timeout.next;
+            }
+            pending--;
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                // One failing task must not stop the wheel for the others
+                Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+            }
+        }
+    }
+}
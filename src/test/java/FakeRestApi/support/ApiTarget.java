@@ -0,0 +1,65 @@
+package FakeRestApi.support;
+
+import FakeRestApi.standin.FaultProfile;
+import FakeRestApi.standin.StandInServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+// Resolves the base URI the suite runs against from the fakerestapi.baseUri system property:
+// "local" (the default) starts the in-process stand-in server once per JVM, "hosted" targets
+// https://fakerestapi.azurewebsites.net and anything else is used as the base URI as-is.
+// -Dfakerestapi.standin.stateful=true makes the stand-in keep POST/PUT/DELETE changes, and
+// -Dfakerestapi.standin.dataDir=<dir> keeps them on disk across runs as well. The stand-in injects
+// the latency and failures of -Dfakerestapi.standin.latencyProfile and friends (see FaultProfile).
+public final class ApiTarget {
+    public static final String BASE_URI_PROPERTY = "fakerestapi.baseUri";
+    public static final String STATEFUL_PROPERTY = "fakerestapi.standin.stateful";
+    public static final String DATA_DIR_PROPERTY = "fakerestapi.standin.dataDir";
+    public static final String HOSTED_BASE_URI = "https://fakerestapi.azurewebsites.net";
+
+    private static StandInServer standIn;
+    private static String baseUri;
+
+    private ApiTarget() {
+    }
+
+    public static synchronized String baseUri() {
+        if (baseUri == null) {
+            String target = System.getProperty(BASE_URI_PROPERTY, "local").trim();
+            if (target.isEmpty() || target.equalsIgnoreCase("local")) {
+                baseUri = standIn().baseUri();
+            } else if (target.equalsIgnoreCase("hosted")) {
+                baseUri = HOSTED_BASE_URI;
+            } else {
+                baseUri = target;
+            }
+        }
+        return baseUri;
+    }
+
+    public static synchronized boolean isLocal() {
+        String uri = baseUri();
+        return standIn != null && uri.equals(standIn.baseUri());
+    }
+
+    // The embedded stand-in, started on a free port on first use and stopped when the JVM exits
+    public static synchronized StandInServer standIn() {
+        if (standIn == null) {
+            try {
+                String dataDir = System.getProperty(DATA_DIR_PROPERTY, "").trim();
+                standIn = dataDir.isEmpty() ? StandInServer.start(0, Boolean.getBoolean(STATEFUL_PROPERTY))
+                        : StandInServer.start(0, Path.of(dataDir));
+                FaultProfile faults = FaultProfile.fromSystemProperties();
+                if (faults != null) {
+                    standIn.injectFaults(faults);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start the FakeRESTApi stand-in server", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(standIn::close, "stand-in-shutdown"));
+        }
+        return standIn;
+    }
+}
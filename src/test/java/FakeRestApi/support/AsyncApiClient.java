@@ -0,0 +1,164 @@
+package FakeRestApi.support;
+
+import FakeRestApi.cassette.CassetteFilter;
+import FakeRestApi.model.Payloads;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Non-blocking requests for fan-out scenarios such as "the authors of every book", which as
+// RestAssured calls are one blocking round trip after another. Requests go out through
+// java.net.http.HttpClient.sendAsync to the target selected by ApiTarget, and responses come back
+// as RestAssured Responses, so they are asserted with the usual then().statusCode(...).body(...)
+// vocabulary. Every exchange is timed into EndpointMetrics like the ones made through the request
+// spec. While a cassette is recording or replaying, requests go through that spec instead (on
+// virtual threads) so the cassette sees them; the response cache is never consulted.
+public final class AsyncApiClient {
+    private static final int CONNECT_TIMEOUT_MS = Integer.getInteger("fakerestapi.http.connectTimeoutMs", 5_000);
+    private static final int REQUEST_TIMEOUT_MS = Integer.getInteger("fakerestapi.http.socketTimeoutMs", 30_000);
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    private static final AsyncApiClient SHARED = new AsyncApiClient();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(CONNECT_TIMEOUT_MS))
+            .executor(EXECUTOR)
+            .build();
+
+    private AsyncApiClient() {
+    }
+
+    public static AsyncApiClient shared() {
+        return SHARED;
+    }
+
+    public CompletableFuture<Response> get(String path) {
+        return send("GET", path, null);
+    }
+
+    // Payload models and maps are serialized with the cached writers in Payloads, strings as they are
+    public CompletableFuture<Response> send(String method, String path, Object body) {
+        if (CassetteFilter.enabled()) {
+            return CompletableFuture.supplyAsync(() -> {
+                var spec = BaseApiTest.newRequestSpec();
+                if (body != null) {
+                    spec.contentType("application/json").body(body);
+                }
+                return spec.request(method, path);
+            }, EXECUTOR);
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(ApiTarget.baseUri() + path))
+                .timeout(Duration.ofMillis(REQUEST_TIMEOUT_MS));
+        if (body == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(serialize(body)));
+        }
+        long start = System.nanoTime();
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    EndpointMetrics.global().record(method, response.uri().getPath(), response.statusCode(),
+                            System.nanoTime() - start);
+                    return toResponse(response);
+                });
+    }
+
+    // GETs the path and completes as soon as the response headers are in, so the caller can parse
+    // the body while it is still arriving; fails unless the status is 200. Timed up to the headers.
+    public CompletableFuture<InputStream> stream(String path) {
+        if (CassetteFilter.enabled()) {
+            return CompletableFuture.supplyAsync(() -> {
+                Response response = BaseApiTest.newRequestSpec().get(path);
+                requireOk(path, response.getStatusCode());
+                return response.asInputStream();
+            }, EXECUTOR);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(ApiTarget.baseUri() + path))
+                .timeout(Duration.ofMillis(REQUEST_TIMEOUT_MS))
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> {
+                    EndpointMetrics.global().record("GET", response.uri().getPath(), response.statusCode(),
+                            System.nanoTime() - start);
+                    if (response.statusCode() != 200) {
+                        try (InputStream body = response.body()) {
+                            body.transferTo(OutputStream.nullOutputStream());
+                        } catch (IOException ignored) {
+                            // The connection is not reused then
+                        }
+                    }
+                    requireOk(path, response.statusCode());
+                    return response.body();
+                });
+    }
+
+    private static void requireOk(String path, int status) {
+        if (status != 200) {
+            throw new IllegalStateException("GET " + path + " answered " + status);
+        }
+    }
+
+    // GETs the path of every input with at most parallelism requests in flight, and completes with
+    // the responses in input order once all of them are in. Each of the parallelism lanes starts
+    // its next request when its previous one completes, so no thread waits in between.
+    public <T> CompletableFuture<List<Response>> fanOut(List<T> inputs, Function<? super T, String> path,
+                                                        int parallelism) {
+        Response[] responses = new Response[inputs.size()];
+        AtomicInteger next = new AtomicInteger();
+        CompletableFuture<?>[] lanes = new CompletableFuture<?>[Math.min(parallelism, inputs.size())];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = lane(inputs, path, responses, next);
+        }
+        return CompletableFuture.allOf(lanes).thenApply(done -> Arrays.asList(responses));
+    }
+
+    private <T> CompletableFuture<Void> lane(List<T> inputs, Function<? super T, String> path, Response[] responses,
+                                             AtomicInteger next) {
+        int index = next.getAndIncrement();
+        if (index >= inputs.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return get(path.apply(inputs.get(index))).thenCompose(response -> {
+            responses[index] = response;
+            return lane(inputs, path, responses, next);
+        });
+    }
+
+    private static byte[] serialize(Object body) {
+        return body instanceof String text ? text.getBytes(StandardCharsets.UTF_8) : Payloads.bytes(body);
+    }
+
+    private static Response toResponse(HttpResponse<byte[]> response) {
+        List<Header> headers = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> values.forEach(value -> headers.add(new Header(name, value))));
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine("HTTP/1.1 " + response.statusCode())
+                .setHeaders(new Headers(headers))
+                .setBody(response.body());
+        response.headers().firstValue("Content-Type").ifPresent(builder::setContentType);
+        return builder.build();
+    }
+}
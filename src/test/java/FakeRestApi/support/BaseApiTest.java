@@ -0,0 +1,84 @@
+package FakeRestApi.support;
+
+import FakeRestApi.cassette.CassetteFilter;
+import FakeRestApi.contract.ContractFilter;
+import FakeRestApi.model.Author;
+import FakeRestApi.model.Payloads;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.RequestSpecification;
+
+import static io.restassured.RestAssured.given;
+
+// Common setup for the API test classes: every request spec is built on the shared, pooled HTTP
+// client configuration and the base URI selected by ApiTarget. Specs are per thread, so test
+// methods of one class can run in parallel without sharing mutable RestAssured state; the global
+// RestAssured defaults are never modified. Exchanges are recorded asynchronously by
+// ExchangeRecorder rather than logged to stdout, repeated GETs are answered by ResponseCache,
+// in-flight requests are capped by ConcurrencyLimiter when it is enabled, responses are checked
+// against their JSON Schema by ContractFilter, and payload models passed to body() are serialized
+// by the cached writers in Payloads.
+public abstract class BaseApiTest {
+    private final ThreadLocal<RequestSpecification> request = ThreadLocal.withInitial(BaseApiTest::newRequestSpec);
+
+    protected RequestSpecification request() {
+        return request.get();
+    }
+
+    // Non-blocking requests next to the DSL, for fanning out over many ids at once
+    protected AsyncApiClient async() {
+        return AsyncApiClient.shared();
+    }
+
+    // The spec every test starts from; public so the benchmarks measure exactly what the tests use
+    public static RequestSpecification newRequestSpec() {
+        RequestSpecification spec = given().config(config());
+        if (ResponseCache.enabled()) {
+            // Outermost, so cache hits are neither logged nor timed as exchanges
+            spec.filter(ResponseCache.instance());
+        }
+        if (ConcurrencyLimiter.enabled()) {
+            // Outside the metrics, so time spent waiting for the limit is not counted as latency
+            spec.filter(ConcurrencyLimiter.instance());
+        }
+        if (ContractFilter.enabled()) {
+            // Outside the recorder and the metrics, so a broken contract is still logged and timed
+            spec.filter(ContractFilter.instance());
+        }
+        spec.filter(ExchangeRecorder.filter())
+                .filter(EndpointMetrics.global())
+                .filter(PhaseTimings.global());
+        if (CassetteFilter.enabled()) {
+            // Innermost, so replayed exchanges are still recorded and timed
+            spec.filter(CassetteFilter.instance());
+        }
+        return spec.baseUri(ApiTarget.baseUri());
+    }
+
+    // Sends one throwaway request that is neither timed nor recorded, so the first timed request
+    // does not pay for loading RestAssured, the HTTP client and Jackson (about a second on a cold
+    // JVM). Skipped under cassette replay, and failures are left for the tests to report.
+    public static void warmUp() {
+        if (CassetteFilter.replaying()) {
+            return;
+        }
+        try {
+            untimedRequestSpec()
+                    .contentType("application/json")
+                    .body(Author.sample(0))
+                    .post("/api/v1/Authors");
+        } catch (RuntimeException ignored) {
+            // The target is unreachable; every test will say so
+        }
+    }
+
+    // Same client and target as newRequestSpec(), without the cache, recorder, metrics and cassette
+    static RequestSpecification untimedRequestSpec() {
+        return given().config(config()).baseUri(ApiTarget.baseUri());
+    }
+
+    private static RestAssuredConfig config() {
+        return HttpClientPool.config().objectMapperConfig(
+                ObjectMapperConfig.objectMapperConfig().defaultObjectMapper(Payloads.mapper()));
+    }
+}
@@ -0,0 +1,155 @@
+package FakeRestApi.support;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Client-side cap on in-flight requests for parallel runs against rate-limited targets, adjusted
+// the way TCP Vegas adjusts its window. Every response time is compared with the lowest one seen
+// (the latency without queueing): while fewer than ALPHA requests' worth of the limit is queueing
+// at the server the limit grows by one, above BETA it shrinks by one, and a 429, a 5xx or a
+// failed exchange (e.g. a socket timeout) cuts it by BACKOFF at once. The lowest latency is
+// forgotten every RTT_WINDOW responses so a change of target or route is picked up. Requests over
+// the limit wait here; the current limit and the time spent waiting are reported by summary().
+// Enabled with -Dfakerestapi.limiter=true, which the parallel profile sets; starts at
+// -Dfakerestapi.limiter.initial (4) and never exceeds -Dfakerestapi.limiter.max (64).
+public final class ConcurrencyLimiter implements Filter {
+    public static final String PROPERTY = "fakerestapi.limiter";
+    private static final ConcurrencyLimiter INSTANCE = new ConcurrencyLimiter(
+            Integer.getInteger(PROPERTY + ".initial", 4), Integer.getInteger(PROPERTY + ".max", 64));
+    private static final int ALPHA = 3;
+    private static final int BETA = 6;
+    private static final double BACKOFF = 0.7;
+    private static final int RTT_WINDOW = 500;
+
+    private final int maxLimit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int peakLimit;
+    private long noLoadRttNanos = Long.MAX_VALUE;
+    private int sinceRttReset;
+    private final Recorder queueingMicros = new Recorder(3);
+    private final Histogram queueing = new Histogram(3);
+    private final LongAdder backoffs = new LongAdder();
+
+    ConcurrencyLimiter(int initialLimit, int maxLimit) {
+        this.maxLimit = maxLimit;
+        this.limit = Math.min(initialLimit, maxLimit);
+        this.peakLimit = (int) limit;
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    public static ConcurrencyLimiter instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        acquire();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            release(start, true);
+            throw e;
+        }
+        int status = response.getStatusCode();
+        release(start, status == 429 || status >= 500);
+        return response;
+    }
+
+    private void acquire() {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                released.awaitUninterruptibly();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+        queueingMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+    }
+
+    private void release(long start, boolean overloaded) {
+        long rtt = System.nanoTime() - start;
+        lock.lock();
+        try {
+            // Only a limit that is actually used says anything about the target
+            boolean saturated = inFlight >= limit / 2;
+            inFlight--;
+            if (overloaded) {
+                limit = Math.max(1, limit * BACKOFF);
+                backoffs.increment();
+            } else {
+                adjust(rtt, saturated);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjust(long rttNanos, boolean saturated) {
+        if (++sinceRttReset >= RTT_WINDOW) {
+            sinceRttReset = 0;
+            noLoadRttNanos = Long.MAX_VALUE;
+        }
+        noLoadRttNanos = Math.min(noLoadRttNanos, rttNanos);
+        double queued = limit * (1 - (double) noLoadRttNanos / rttNanos);
+        if (queued > BETA) {
+            limit = Math.max(1, limit - 1);
+        } else if (queued < ALPHA && saturated) {
+            limit = Math.min(maxLimit, limit + 1);
+            peakLimit = Math.max(peakLimit, (int) limit);
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Time requests spent waiting for the limit, in microseconds, since the start of the run
+    public synchronized Histogram queueingDelay() {
+        queueing.add(queueingMicros.getIntervalHistogram());
+        return queueing.copy();
+    }
+
+    public String summary() {
+        Histogram delay = queueingDelay();
+        return String.format("Concurrency limit: %d (peak %d), backoffs %d, queueing p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+                limit(), peakLimit, backoffs.sum(), delay.getValueAtPercentile(50) / 1000.0,
+                delay.getValueAtPercentile(99) / 1000.0, delay.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,101 @@
+package FakeRestApi.support;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Latency histograms in microseconds per method, path template and status code. The global
+// instance is part of every request spec, so the suite and the load runner share one view of
+// the timings. Numeric path segments are folded into {id}: GET /api/v1/Books/4 is recorded as
+// GET /api/v1/Books/{id}. Under OpenLoopRunner a request is timed from when it was meant to be sent,
+// not from when it was, so time spent behind schedule counts as latency.
+public final class EndpointMetrics implements Filter {
+    private static final EndpointMetrics GLOBAL = new EndpointMetrics();
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/-?\\d+(?=/|$)");
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    // How late the iteration running on this thread started against its schedule
+    private static final ThreadLocal<Long> scheduleLag = new ThreadLocal<>();
+
+    private final ConcurrentMap<Key, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public record Endpoint(String method, String path) {
+        @Override
+        public String toString() {
+            return method + " " + path;
+        }
+    }
+
+    public record Key(Endpoint endpoint, int status) {
+        static final Comparator<Key> ORDER = Comparator.comparing((Key key) -> key.endpoint().path())
+                .thenComparing(key -> key.endpoint().method())
+                .thenComparingInt(Key::status);
+    }
+
+    public static EndpointMetrics global() {
+        return GLOBAL;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Long lag = scheduleLag.get();
+        long start = System.nanoTime() - (lag == null ? 0 : lag);
+        Response response = ctx.next(requestSpec, responseSpec);
+        record(requestSpec.getMethod(), URI.create(requestSpec.getURI()).getPath(), response.getStatusCode(),
+                System.nanoTime() - start);
+        return response;
+    }
+
+    // Adds the lag to every request the current thread makes until cleared
+    public static void behindSchedule(long lagNanos) {
+        scheduleLag.set(lagNanos);
+    }
+
+    public static void clearScheduleLag() {
+        scheduleLag.remove();
+    }
+
+    public void record(String method, String path, int status, long durationNanos) {
+        histograms.computeIfAbsent(new Key(new Endpoint(method, template(path)), status),
+                        key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS))
+                .recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(durationNanos)));
+    }
+
+    // Copies of the histograms recorded so far, ordered by path, method and status
+    public Map<Key, Histogram> snapshot() {
+        Map<Key, Histogram> snapshot = new TreeMap<>(Key.ORDER);
+        histograms.forEach((key, histogram) -> snapshot.put(key, histogram.copy()));
+        return snapshot;
+    }
+
+    // Histograms merged across status codes
+    public Map<Endpoint, Histogram> byEndpoint() {
+        Map<Endpoint, Histogram> merged = new TreeMap<>(Comparator.comparing(Endpoint::path).thenComparing(Endpoint::method));
+        histograms.forEach((key, histogram) -> merged
+                .computeIfAbsent(key.endpoint(), endpoint -> new Histogram(SIGNIFICANT_DIGITS))
+                .add(histogram.copy()));
+        return merged;
+    }
+
+    public void reset() {
+        histograms.clear();
+    }
+
+    public static String template(String path) {
+        return NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+}
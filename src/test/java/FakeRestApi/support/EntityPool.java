@@ -0,0 +1,158 @@
+package FakeRestApi.support;
+
+import FakeRestApi.cassette.CassetteFilter;
+import FakeRestApi.model.Activity;
+import FakeRestApi.model.Author;
+import FakeRestApi.model.Book;
+import FakeRestApi.model.CoverPhoto;
+import FakeRestApi.model.User;
+import io.restassured.response.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+// Entities created up front for tests that update or delete, so they no longer share magic ids
+// (book 4, cover photo 1) and need no WRITE lock: a test leases an entity for itself and the lease
+// hands it back on close, unless the test consumed it by deleting it. On its first lease each pool
+// creates -Dfakerestapi.pool.size entities (8) with concurrent POSTs, and it refills in the
+// background once half of them are leased; when it runs dry, as under the load runner, lease()
+// creates one on the spot instead of waiting. Ids start at 100000, clear of the seeded data. A
+// lease takes the lowest free id and refills only add higher ones, so unless a pool runs dry a
+// sequential run leases the same ids every time, which cassette replay relies on. Creates are
+// neither timed nor recorded, so they do not count against the latency budgets, and under replay
+// they are not sent at all.
+public final class EntityPool<T> {
+    private static final int SIZE = Integer.getInteger("fakerestapi.pool.size", 8);
+    private static final int FIRST_ID = 100_000;
+    private static final ExecutorService CREATORS = Executors.newVirtualThreadPerTaskExecutor();
+
+    public static final EntityPool<Activity> ACTIVITIES = new EntityPool<>("Activities", Activity::sample);
+    public static final EntityPool<Author> AUTHORS = new EntityPool<>("Authors", Author::sample);
+    public static final EntityPool<Book> BOOKS = new EntityPool<>("Books", Book::sample);
+    public static final EntityPool<CoverPhoto> COVER_PHOTOS = new EntityPool<>("CoverPhotos", CoverPhoto::sample);
+    public static final EntityPool<User> USERS = new EntityPool<>("Users", User::sample);
+
+    private final String path;
+    private final IntFunction<T> factory;
+    private final PriorityBlockingQueue<Pooled<T>> available = new PriorityBlockingQueue<>();
+    private final AtomicInteger nextId = new AtomicInteger(FIRST_ID);
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private volatile boolean filled;
+
+    private record Pooled<T>(int id, T entity) implements Comparable<Pooled<T>> {
+        @Override
+        public int compareTo(Pooled<T> other) {
+            return Integer.compare(id, other.id);
+        }
+    }
+
+    public static final class Lease<T> implements AutoCloseable {
+        private final EntityPool<T> pool;
+        private final Pooled<T> pooled;
+        private boolean consumed;
+
+        private Lease(EntityPool<T> pool, Pooled<T> pooled) {
+            this.pool = pool;
+            this.pooled = pooled;
+        }
+
+        public int id() {
+            return pooled.id();
+        }
+
+        public T entity() {
+            return pooled.entity();
+        }
+
+        // The test deleted the entity; it is not handed back
+        public void consume() {
+            consumed = true;
+        }
+
+        @Override
+        public void close() {
+            if (!consumed) {
+                pool.available.add(pooled);
+            }
+        }
+    }
+
+    private EntityPool(String resource, IntFunction<T> factory) {
+        this.path = "/api/v1/" + resource;
+        this.factory = factory;
+    }
+
+    // Fills the pool the first time a test leases from it, so a suite that never leases from a pool
+    // does not create its entities; the first lease waits for the fill, which keeps the leased ids
+    // the same from run to run
+    private synchronized void prefill() {
+        if (!filled) {
+            refill();
+            filled = true;
+        }
+    }
+
+    public Lease<T> lease() {
+        if (!filled) {
+            prefill();
+        }
+        Pooled<T> pooled = available.poll();
+        if (available.size() < SIZE / 2) {
+            refillInBackground();
+        }
+        return new Lease<>(this, pooled != null ? pooled : create());
+    }
+
+    private void refillInBackground() {
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+        CREATORS.submit(() -> {
+            try {
+                refill();
+            } finally {
+                refilling.set(false);
+            }
+        });
+    }
+
+    // Sends the missing creates at once rather than one round trip after another
+    private void refill() {
+        List<Future<Pooled<T>>> creates = new ArrayList<>();
+        for (int i = available.size(); i < SIZE; i++) {
+            creates.add(CREATORS.submit(this::create));
+        }
+        for (Future<Pooled<T>> create : creates) {
+            try {
+                available.add(create.get());
+            } catch (Exception e) {
+                // Left to lease(), which creates on demand and reports the failure to its test
+            }
+        }
+    }
+
+    private Pooled<T> create() {
+        int id = nextId.getAndIncrement();
+        T entity = factory.apply(id);
+        if (CassetteFilter.replaying()) {
+            // The cassette answers the tests' requests, whatever the server holds
+            return new Pooled<>(id, entity);
+        }
+        Response response = BaseApiTest.untimedRequestSpec()
+                .contentType("application/json")
+                .body(entity)
+                .post(path);
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("Could not create a pooled entity: POST " + path + " answered "
+                    + response.getStatusLine());
+        }
+        return new Pooled<>(id, entity);
+    }
+}
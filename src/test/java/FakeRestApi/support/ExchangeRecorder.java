@@ -0,0 +1,162 @@
+package FakeRestApi.support;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Replaces log().all(): records every exchange into a fixed-size ring buffer and leaves formatting
+// and writing to a background thread that appends them to target/http-exchanges.log. The test
+// thread only claims a sequence number and stores a reference. When writers lap the flusher the
+// oldest exchanges are dropped from the log, never blocking a test; the ring still holds the most
+// recent ones, which ExchangeRecorderListener attaches to Allure for failed tests.
+// -Dfakerestapi.exchangeLog=none keeps the ring (and the Allure attachments) but writes no log.
+public final class ExchangeRecorder implements Filter {
+    private static final int CAPACITY = Integer.highestOneBit(Integer.getInteger("fakerestapi.exchangeRing.size", 4096));
+    private static final String LOG_PROPERTY = System.getProperty("fakerestapi.exchangeLog", "target/http-exchanges.log");
+    private static final Path LOG_FILE = LOG_PROPERTY.equals("none") ? null : Path.of(LOG_PROPERTY);
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private static final ExchangeRecorder INSTANCE = new ExchangeRecorder();
+    private static final AtomicReferenceArray<RecordedExchange> ring = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong next = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+
+    // Guarded by the class lock, only touched by drain()
+    private static long flushed;
+    private static BufferedWriter writer;
+
+    static {
+        Thread flusher = Thread.ofPlatform().daemon().name("exchange-flusher").unstarted(() -> {
+            while (true) {
+                LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+                try {
+                    drain();
+                } catch (UncheckedIOException e) {
+                    System.err.println(e.getMessage());
+                }
+            }
+        });
+        flusher.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(ExchangeRecorder::flush, "exchange-flush"));
+    }
+
+    private ExchangeRecorder() {
+    }
+
+    public static ExchangeRecorder filter() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long startedAtMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long durationNanos = System.nanoTime() - start;
+
+        long sequence = next.getAndIncrement();
+        RecordedExchange exchange = new RecordedExchange(sequence, currentTest.get(), startedAtMillis, durationNanos,
+                requestSpec.getMethod(), requestSpec.getURI(), requestSpec.getHeaders(), requestSpec.getBody(),
+                response.getStatusLine(), response.getHeaders(), response.asByteArray());
+        // A slow writer must not overwrite a newer exchange that already lapped it
+        ring.updateAndGet((int) (sequence & (CAPACITY - 1)),
+                current -> current == null || current.sequence() < sequence ? exchange : current);
+        return response;
+    }
+
+    // Tags exchanges made by the current thread with the running test
+    static void startTest(String test) {
+        currentTest.set(test);
+    }
+
+    static void endTest() {
+        currentTest.remove();
+    }
+
+    // Exchanges of the given test that are still in the ring, oldest first
+    static List<RecordedExchange> exchangesOf(String test) {
+        List<RecordedExchange> exchanges = new ArrayList<>();
+        for (int i = 0; i < CAPACITY; i++) {
+            RecordedExchange exchange = ring.get(i);
+            if (exchange != null && test.equals(exchange.test())) {
+                exchanges.add(exchange);
+            }
+        }
+        exchanges.sort(Comparator.comparingLong(RecordedExchange::sequence));
+        return exchanges;
+    }
+
+    public static long recorded() {
+        return next.get();
+    }
+
+    public static long dropped() {
+        return dropped.get();
+    }
+
+    // Writes out everything recorded so far; called when the suite finishes
+    public static void flush() {
+        drain();
+        synchronized (ExchangeRecorder.class) {
+            try {
+                if (writer != null) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static synchronized void drain() {
+        long published = next.get();
+        if (published - flushed > CAPACITY) {
+            dropped.addAndGet(published - CAPACITY - flushed);
+            flushed = published - CAPACITY;
+        }
+        try {
+            for (; flushed < published; flushed++) {
+                RecordedExchange exchange = ring.get((int) (flushed & (CAPACITY - 1)));
+                if (exchange == null || exchange.sequence() < flushed) {
+                    // Claimed but not stored yet, pick it up on the next pass
+                    break;
+                }
+                if (exchange.sequence() > flushed) {
+                    dropped.incrementAndGet();
+                    continue;
+                }
+                if (LOG_FILE != null) {
+                    writer().write(exchange.format());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + LOG_FILE, e);
+        }
+    }
+
+    private static BufferedWriter writer() throws IOException {
+        if (writer == null) {
+            Path parent = LOG_FILE.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            writer = Files.newBufferedWriter(LOG_FILE);
+        }
+        return writer;
+    }
+}
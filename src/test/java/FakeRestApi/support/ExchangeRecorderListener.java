@@ -0,0 +1,44 @@
+package FakeRestApi.support;
+
+import io.qameta.allure.Allure;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.util.List;
+
+// Tags recorded exchanges with the test that made them and, only when that test fails, attaches
+// their full request/response detail to the Allure report.
+public class ExchangeRecorderListener implements IInvokedMethodListener {
+    private static final String TEST_ID = ExchangeRecorderListener.class.getName() + ".testId";
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        String testId = testResult.getMethod().getQualifiedName() + "@" + Integer.toHexString(System.identityHashCode(testResult));
+        testResult.setAttribute(TEST_ID, testId);
+        ExchangeRecorder.startTest(testId);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        ExchangeRecorder.endTest();
+        if (testResult.getStatus() != ITestResult.FAILURE) {
+            return;
+        }
+        List<RecordedExchange> exchanges = ExchangeRecorder.exchangesOf((String) testResult.getAttribute(TEST_ID));
+        if (exchanges.isEmpty()) {
+            return;
+        }
+        StringBuilder detail = new StringBuilder();
+        for (RecordedExchange exchange : exchanges) {
+            detail.append(exchange.format()).append('\n');
+        }
+        Allure.addAttachment("HTTP exchanges", "text/plain", detail.toString(), ".txt");
+    }
+}
@@ -0,0 +1,229 @@
+package FakeRestApi.support;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.conn.HttpInetSocketAddress;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.ExecutionContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// The one HTTP client shared by every test class: a keep-alive connection pool sized for parallel
+// runs, with connect/socket timeouts and counters for how many connections were opened vs reused.
+// DNS lookups, connects, TLS handshakes, sends, waits for the response and body reads are timed
+// for PhaseTimings.
+// RestAssured needs an AbstractHttpClient, hence the (deprecated) 4.x DefaultHttpClient API.
+@SuppressWarnings("deprecation")
+public final class HttpClientPool {
+    private static final int MAX_CONNECTIONS = Integer.getInteger("fakerestapi.http.maxConnections", 64);
+    private static final int CONNECT_TIMEOUT_MS = Integer.getInteger("fakerestapi.http.connectTimeoutMs", 5_000);
+    private static final int SOCKET_TIMEOUT_MS = Integer.getInteger("fakerestapi.http.socketTimeoutMs", 30_000);
+    // Idle connections are closed well before servers drop them, so the stale check can stay off
+    private static final long IDLE_EVICTION_SECONDS = 15;
+
+    private static final LongAdder opened = new LongAdder();
+    private static final LongAdder reused = new LongAdder();
+
+    private static final PoolingClientConnectionManager connectionManager =
+            new PoolingClientConnectionManager(timedSchemes(), host -> {
+                long start = System.nanoTime();
+                try {
+                    return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+                } finally {
+                    PhaseTimings.add(PhaseTimings.Phase.DNS, System.nanoTime() - start);
+                }
+            });
+    private static final DefaultHttpClient client = createClient();
+    private static final RestAssuredConfig config = RestAssuredConfig.config()
+            .httpClient(HttpClientConfig.httpClientConfig()
+                    .reuseHttpClientInstance()
+                    .httpClientFactory(() -> client));
+
+    private HttpClientPool() {
+    }
+
+    public static RestAssuredConfig config() {
+        return config;
+    }
+
+    public static long connectionsOpened() {
+        return opened.sum();
+    }
+
+    public static long connectionsReused() {
+        return reused.sum();
+    }
+
+    public static String summary() {
+        return "HTTP connections opened: " + connectionsOpened() + ", reused: " + connectionsReused()
+                + ", pool: " + connectionManager.getTotalStats();
+    }
+
+    private static DefaultHttpClient createClient() {
+        connectionManager.setMaxTotal(MAX_CONNECTIONS);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS);
+
+        HttpParams params = new BasicHttpParams();
+        params.setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, CONNECT_TIMEOUT_MS);
+        params.setIntParameter(CoreConnectionPNames.SO_TIMEOUT, SOCKET_TIMEOUT_MS);
+        params.setBooleanParameter(CoreConnectionPNames.TCP_NODELAY, true);
+        params.setBooleanParameter(CoreConnectionPNames.STALE_CONNECTION_CHECK, false);
+
+        DefaultHttpClient httpClient = new DefaultHttpClient(connectionManager, params) {
+            @Override
+            protected HttpRequestExecutor createRequestExecutor() {
+                return new TimedRequestExecutor();
+            }
+        };
+        // Request interceptors run once the pooled connection is leased; a connection that has not
+        // sent a request yet was just opened for this one
+        httpClient.addRequestInterceptor((HttpRequestInterceptor) (request, context) -> {
+            HttpConnection connection = (HttpConnection) context.getAttribute(ExecutionContext.HTTP_CONNECTION);
+            if (connection == null) {
+                return;
+            }
+            if (connection.getMetrics().getRequestCount() == 0) {
+                opened.increment();
+            } else {
+                reused.increment();
+            }
+        });
+        // RestAssured only reads a body when an assertion or filter needs it, and an unread body keeps
+        // its connection leased. Buffering it here hands the connection back to the pool right away.
+        httpClient.addResponseInterceptor((HttpResponseInterceptor) (response, context) -> {
+            HttpEntity entity = response.getEntity();
+            if (entity != null && entity.isStreaming()) {
+                response.setEntity(timed(PhaseTimings.Phase.TRANSFER, () -> new BufferedHttpEntity(entity)));
+            }
+        });
+
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(IDLE_EVICTION_SECONDS, TimeUnit.SECONDS);
+        }, 5, 5, TimeUnit.SECONDS);
+        return httpClient;
+    }
+
+    // http and https as by default, with TCP connect and TLS handshake timed apart for PhaseTimings
+    private static SchemeRegistry timedSchemes() {
+        SchemeSocketFactory plain = PlainSocketFactory.getSocketFactory();
+        SchemeLayeredSocketFactory tls = SSLSocketFactory.getSocketFactory();
+        SchemeRegistry schemes = new SchemeRegistry();
+        schemes.register(new Scheme("http", 80, new SchemeSocketFactory() {
+            @Override
+            public Socket createSocket(HttpParams params) throws IOException {
+                return plain.createSocket(params);
+            }
+
+            @Override
+            public Socket connectSocket(Socket socket, InetSocketAddress remote, InetSocketAddress local,
+                                        HttpParams params) throws IOException {
+                return timed(PhaseTimings.Phase.CONNECT, () -> plain.connectSocket(socket, remote, local, params));
+            }
+
+            @Override
+            public boolean isSecure(Socket socket) {
+                return false;
+            }
+        }));
+        // Connects a plain socket and layers TLS over it, which is what SSLSocketFactory.connectSocket
+        // does in one step
+        schemes.register(new Scheme("https", 443, new SchemeLayeredSocketFactory() {
+            @Override
+            public Socket createSocket(HttpParams params) {
+                return new Socket();
+            }
+
+            @Override
+            public Socket connectSocket(Socket socket, InetSocketAddress remote, InetSocketAddress local,
+                                        HttpParams params) throws IOException {
+                Socket connected = timed(PhaseTimings.Phase.CONNECT, () -> plain.connectSocket(socket, remote, local, params));
+                String host = remote instanceof HttpInetSocketAddress address ? address.getHttpHost().getHostName()
+                        : remote.getHostName();
+                return timed(PhaseTimings.Phase.TLS, () -> tls.createLayeredSocket(connected, host, remote.getPort(), params));
+            }
+
+            @Override
+            public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params) throws IOException {
+                return timed(PhaseTimings.Phase.TLS, () -> tls.createLayeredSocket(socket, target, port, params));
+            }
+
+            @Override
+            public boolean isSecure(Socket socket) {
+                return tls.isSecure(socket);
+            }
+        }));
+        return schemes;
+    }
+
+    // Sending the request, and waiting until the status line and headers of the response are in
+    private static final class TimedRequestExecutor extends HttpRequestExecutor {
+        @Override
+        protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection connection, HttpContext context)
+                throws IOException, HttpException {
+            long start = System.nanoTime();
+            try {
+                return super.doSendRequest(request, connection, context);
+            } finally {
+                PhaseTimings.add(PhaseTimings.Phase.SEND, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection connection,
+                                                 HttpContext context) throws HttpException, IOException {
+            long start = System.nanoTime();
+            try {
+                return super.doReceiveResponse(request, connection, context);
+            } finally {
+                PhaseTimings.add(PhaseTimings.Phase.WAIT, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private interface IoAction<T> {
+        T run() throws IOException;
+    }
+
+    private static <T> T timed(PhaseTimings.Phase phase, IoAction<T> action) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return action.run();
+        } finally {
+            PhaseTimings.add(phase, System.nanoTime() - start);
+        }
+    }
+}
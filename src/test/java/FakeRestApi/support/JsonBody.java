@@ -0,0 +1,347 @@
+package FakeRestApi.support;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Description;
+import org.hamcrest.DiagnosingMatcher;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Body assertions checked in a single streaming Jackson pass instead of one Groovy GPath
+// evaluation (and one full parse of the body) per assertion. Paths are compiled once, and
+// subtrees no assertion looks into are skipped without being built. Plugs into then():
+//
+//   .then().body(json()
+//           .size(greaterThan(0))
+//           .path("[0].id", notNullValue())
+//           .every("lastName", equalTo("Doe")))
+//
+// Values come out as GPath would return them for these bodies: String, Integer/Long, Double,
+// Boolean, null for a missing path, and Map/List when a path names an object or list. For list
+// responses too large to buffer, assertOn() runs the same pass over the body as it streams in.
+public final class JsonBody extends DiagnosingMatcher<Object> {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<Expectation> expectations = new ArrayList<>();
+    // RestAssured reports a failed body(matcher) with the description and the whole body but not
+    // the mismatch, so the description carries the last mismatch along
+    private volatile String lastMismatch;
+
+    private record Expectation(JsonBodyPath path, Matcher<?> matcher) {
+    }
+
+    private JsonBody() {
+    }
+
+    public static JsonBody json() {
+        return new JsonBody();
+    }
+
+    // Number of elements of a list body, or of fields of an object body
+    public JsonBody size(Matcher<? super Integer> matcher) {
+        return path("size()", matcher);
+    }
+
+    public JsonBody path(String path, Matcher<?> matcher) {
+        JsonBodyPath compiled = JsonBodyPath.compile(path);
+        if (compiled.wildcard() >= 0) {
+            throw new IllegalArgumentException("Use every() for paths with [*]: " + path);
+        }
+        expectations.add(new Expectation(compiled, matcher));
+        return this;
+    }
+
+    // Matches the value at the path in every element of a list; "lastName" is short for
+    // "[*].lastName", the field of every element of a list body. Like everyItem(...) on the
+    // GPath result, an element without the field is matched as null and an empty list passes.
+    public JsonBody every(String path, Matcher<?> itemMatcher) {
+        JsonBodyPath compiled = JsonBodyPath.compile(path.contains("[*]") ? path : "[*]." + path);
+        if (compiled.wildcard() < 0) {
+            throw new IllegalArgumentException("No list to iterate in " + path);
+        }
+        expectations.add(new Expectation(compiled, itemMatcher));
+        return this;
+    }
+
+    // Checks a body while it is still arriving, e.g. from AsyncApiClient.stream(), so no more of it
+    // is held than the value being looked at and heap use does not grow with the number of items.
+    // Closes the stream; throws an AssertionError listing every failed expectation.
+    public void assertOn(InputStream body) {
+        if (!matches(body, new StringDescription())) {
+            throw new AssertionError("Expected " + StringDescription.toString(this));
+        }
+    }
+
+    @Override
+    protected boolean matches(Object body, Description mismatch) {
+        StringDescription detail = new StringDescription();
+        boolean matched = evaluate(body, detail);
+        lastMismatch = matched ? null : detail.toString();
+        mismatch.appendText(detail.toString());
+        return matched;
+    }
+
+    private boolean evaluate(Object body, Description mismatch) {
+        List<Evaluation> evaluations = new ArrayList<>(expectations.size());
+        for (Expectation expectation : expectations) {
+            evaluations.add(new Evaluation(expectation));
+        }
+        try (JsonParser parser = parser(body)) {
+            if (parser.nextToken() == null) {
+                mismatch.appendText("\n  body was empty");
+                return false;
+            }
+            walk(parser, 0, evaluations, new ArrayList<>());
+        } catch (IOException e) {
+            mismatch.appendText("\n  body was not valid JSON: ").appendText(e.getMessage());
+            return false;
+        }
+        boolean matched = true;
+        for (Evaluation evaluation : evaluations) {
+            matched &= evaluation.report(mismatch);
+        }
+        return matched;
+    }
+
+    private static JsonParser parser(Object body) throws IOException {
+        return switch (body) {
+            case InputStream in -> MAPPER.createParser(in);
+            case byte[] bytes -> MAPPER.createParser(bytes);
+            default -> MAPPER.createParser(String.valueOf(body));
+        };
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("a JSON body where");
+        String separator = " ";
+        for (Expectation expectation : expectations) {
+            description.appendText(separator).appendText(expectation.path().toString())
+                    .appendText(expectation.path().wildcard() >= 0 ? " is each " : " is ")
+                    .appendDescriptionOf(expectation.matcher());
+            separator = ", ";
+        }
+        String mismatch = lastMismatch;
+        if (mismatch != null) {
+            description.appendText("\n    but:").appendText(mismatch);
+        }
+    }
+
+    // Visits the value the parser is on. active holds the evaluations whose first depth steps
+    // lead here; levels holds one reusable list per depth for the evaluations of a child.
+    private static void walk(JsonParser parser, int depth, List<Evaluation> active, List<List<Evaluation>> levels)
+            throws IOException {
+        JsonToken token = parser.currentToken();
+        boolean container = token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT;
+        boolean wholeValue = false;
+        for (Evaluation evaluation : active) {
+            if (evaluation.path.length() == depth && !evaluation.path.isSize()) {
+                if (container) {
+                    wholeValue = true;
+                } else {
+                    evaluation.accept(scalar(parser));
+                }
+            }
+        }
+        if (!container) {
+            return;
+        }
+        if (wholeValue) {
+            // Someone needs this object or list itself, so build it once and finish every
+            // evaluation below this point on the tree
+            Object tree = MAPPER.readValue(parser, Object.class);
+            for (Evaluation evaluation : active) {
+                resolve(tree, depth, evaluation);
+            }
+            return;
+        }
+
+        while (levels.size() <= depth + 1) {
+            levels.add(new ArrayList<>());
+        }
+        List<Evaluation> children = levels.get(depth + 1);
+        int count = 0;
+        if (token == JsonToken.START_ARRAY) {
+            for (Evaluation evaluation : active) {
+                if (evaluation.path.wildcard() == depth) {
+                    evaluation.listFound = true;
+                }
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                children.clear();
+                for (Evaluation evaluation : active) {
+                    if (evaluation.path.matchesIndex(depth, count)) {
+                        children.add(evaluation);
+                    }
+                }
+                if (children.isEmpty()) {
+                    parser.skipChildren();
+                } else {
+                    startItem(children, depth);
+                    walk(parser, depth + 1, children, levels);
+                    endItem(children, depth);
+                }
+                count++;
+            }
+        } else {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                children.clear();
+                for (Evaluation evaluation : active) {
+                    if (evaluation.path.matchesField(depth, name)) {
+                        children.add(evaluation);
+                    }
+                }
+                if (children.isEmpty()) {
+                    parser.skipChildren();
+                } else {
+                    walk(parser, depth + 1, children, levels);
+                }
+                count++;
+            }
+        }
+        for (Evaluation evaluation : active) {
+            if (evaluation.path.length() == depth && evaluation.path.isSize()) {
+                evaluation.accept(count);
+            }
+        }
+    }
+
+    private static void startItem(List<Evaluation> evaluations, int depth) {
+        for (Evaluation evaluation : evaluations) {
+            if (evaluation.path.wildcard() == depth) {
+                evaluation.itemFound = false;
+            }
+        }
+    }
+
+    private static void endItem(List<Evaluation> evaluations, int depth) {
+        for (Evaluation evaluation : evaluations) {
+            if (evaluation.path.wildcard() == depth) {
+                evaluation.endItem();
+            }
+        }
+    }
+
+    // The same walk over an already built tree
+    private static void resolve(Object node, int depth, Evaluation evaluation) {
+        JsonBodyPath path = evaluation.path;
+        if (depth == path.length()) {
+            if (!path.isSize()) {
+                evaluation.accept(node);
+            } else if (node instanceof List<?> list) {
+                evaluation.accept(list.size());
+            } else if (node instanceof Map<?, ?> map) {
+                evaluation.accept(map.size());
+            }
+            return;
+        }
+        switch (path.step(depth)) {
+            case JsonBodyPath.Field(String name) -> {
+                if (node instanceof Map<?, ?> map && map.containsKey(name)) {
+                    resolve(map.get(name), depth + 1, evaluation);
+                }
+            }
+            case JsonBodyPath.Index(int index) -> {
+                if (node instanceof List<?> list && index < list.size()) {
+                    resolve(list.get(index), depth + 1, evaluation);
+                }
+            }
+            case JsonBodyPath.AnyIndex() -> {
+                if (node instanceof List<?> list) {
+                    evaluation.listFound = true;
+                    for (Object item : list) {
+                        evaluation.itemFound = false;
+                        resolve(item, depth + 1, evaluation);
+                        evaluation.endItem();
+                    }
+                }
+            }
+        }
+    }
+
+    private static Object scalar(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT -> parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+
+    // Outcome of one expectation against one body. A plain path keeps the value it found; a
+    // [*] path checks each element as it streams past and keeps only the first failure.
+    private static final class Evaluation {
+        private final JsonBodyPath path;
+        private final Matcher<?> matcher;
+        private boolean found;
+        private Object value;
+        private boolean listFound;
+        private boolean itemFound;
+        private int items;
+        private int failedItem = -1;
+        private Object failedValue;
+
+        Evaluation(Expectation expectation) {
+            this.path = expectation.path();
+            this.matcher = expectation.matcher();
+        }
+
+        void accept(Object value) {
+            if (path.wildcard() < 0) {
+                found = true;
+                this.value = value;
+                return;
+            }
+            itemFound = true;
+            if (failedItem < 0 && !matcher.matches(value)) {
+                failedItem = items;
+                failedValue = value;
+            }
+        }
+
+        void endItem() {
+            if (!itemFound) {
+                accept(null);
+            }
+            items++;
+        }
+
+        boolean report(Description mismatch) {
+            if (path.wildcard() < 0) {
+                if (matcher.matches(value)) {
+                    return true;
+                }
+                mismatch.appendText("\n  ").appendText(path.toString()).appendText(" expected ")
+                        .appendDescriptionOf(matcher).appendText(" but ");
+                matcher.describeMismatch(value, mismatch);
+                if (!found) {
+                    mismatch.appendText(" (no such path)");
+                }
+                return false;
+            }
+            if (!listFound) {
+                mismatch.appendText("\n  ").appendText(path.toString()).appendText(" expected a list but there was none");
+                return false;
+            }
+            if (failedItem < 0) {
+                return true;
+            }
+            mismatch.appendText("\n  ").appendText(path.toString()).appendText(" expected every item ")
+                    .appendDescriptionOf(matcher).appendText(" but item ").appendValue(failedItem)
+                    .appendText(" of ").appendValue(items).appendText(" ");
+            matcher.describeMismatch(failedValue, mismatch);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package FakeRestApi.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// A path into a JSON body in the subset of GPath the tests use: field names and list indexes
+// separated by dots ("[0].id", "author.name", "items[2].title"), [*] for every element of a list
+// and a trailing size() for the number of elements or fields. Compiled once per distinct string.
+final class JsonBodyPath {
+    private static final ConcurrentMap<String, JsonBodyPath> COMPILED = new ConcurrentHashMap<>();
+
+    sealed interface Step permits Field, Index, AnyIndex {
+    }
+
+    record Field(String name) implements Step {
+    }
+
+    record Index(int index) implements Step {
+    }
+
+    record AnyIndex() implements Step {
+    }
+
+    private final String text;
+    private final Step[] steps;
+    private final boolean size;
+    private final int wildcard;
+
+    private JsonBodyPath(String text, Step[] steps, boolean size) {
+        this.text = text;
+        this.steps = steps;
+        this.size = size;
+        int wildcard = -1;
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i] instanceof AnyIndex) {
+                if (wildcard >= 0) {
+                    throw new IllegalArgumentException("Only one [*] is supported: " + text);
+                }
+                wildcard = i;
+            }
+        }
+        this.wildcard = wildcard;
+    }
+
+    static JsonBodyPath compile(String text) {
+        return COMPILED.computeIfAbsent(text, JsonBodyPath::parse);
+    }
+
+    private static JsonBodyPath parse(String text) {
+        List<Step> steps = new ArrayList<>();
+        boolean size = false;
+        String[] segments = text.isEmpty() ? new String[0] : text.split("\\.", -1);
+        for (int s = 0; s < segments.length; s++) {
+            String segment = segments[s];
+            if (segment.equals("size()")) {
+                if (s != segments.length - 1) {
+                    throw new IllegalArgumentException("size() must come last: " + text);
+                }
+                size = true;
+                break;
+            }
+            int bracket = segment.indexOf('[');
+            String name = bracket < 0 ? segment : segment.substring(0, bracket);
+            if (!name.isEmpty()) {
+                steps.add(new Field(name));
+            } else if (bracket < 0) {
+                throw new IllegalArgumentException("Empty path segment: " + text);
+            }
+            for (int pos = bracket; pos >= 0 && pos < segment.length(); ) {
+                int close = segment.indexOf(']', pos);
+                if (segment.charAt(pos) != '[' || close < 0) {
+                    throw new IllegalArgumentException("Malformed index in path: " + text);
+                }
+                String index = segment.substring(pos + 1, close).trim();
+                if (index.equals("*")) {
+                    steps.add(new AnyIndex());
+                } else if (Integer.parseInt(index) >= 0) {
+                    steps.add(new Index(Integer.parseInt(index)));
+                } else {
+                    // Counting from the end would mean buffering the whole list
+                    throw new IllegalArgumentException("Negative indexes are not supported: " + text);
+                }
+                pos = close + 1;
+            }
+        }
+        return new JsonBodyPath(text, steps.toArray(new Step[0]), size);
+    }
+
+    // Number of steps; a location at this depth is the one the path names
+    int length() {
+        return steps.length;
+    }
+
+    Step step(int depth) {
+        return steps[depth];
+    }
+
+    boolean isSize() {
+        return size;
+    }
+
+    // Index of the [*] step, or -1
+    int wildcard() {
+        return wildcard;
+    }
+
+    // Whether the step at the given depth accepts the list element or object field being entered
+    boolean matchesIndex(int depth, int index) {
+        return depth < steps.length && (steps[depth] instanceof AnyIndex
+                || steps[depth] instanceof Index(int i) && i == index);
+    }
+
+    boolean matchesField(int depth, String name) {
+        return depth < steps.length && steps[depth] instanceof Field(String n) && n.equals(name);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
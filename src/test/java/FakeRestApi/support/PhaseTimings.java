@@ -0,0 +1,155 @@
+package FakeRestApi.support;
+
+import FakeRestApi.support.EndpointMetrics.Endpoint;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Where the time of a request went, per endpoint: DNS lookup, TCP connect and TLS handshake (only
+// for requests that opened a connection), sending the request, waiting for the first byte of the
+// response (server time plus one round trip) and reading the body. The HTTP client in
+// HttpClientPool reports each phase as it happens on the requesting thread, and this filter files
+// them under the request's endpoint once it completes. Exported in the Prometheus text format;
+// requests answered by the response cache or a replayed cassette never reach the client and are
+// not counted, nor are AsyncApiClient's.
+public final class PhaseTimings implements Filter {
+    public static final String FILE_PROPERTY = "fakerestapi.phaseTimings";
+    private static final PhaseTimings GLOBAL = new PhaseTimings();
+    private static final ThreadLocal<long[]> current = new ThreadLocal<>();
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    public enum Phase {DNS, CONNECT, TLS, SEND, WAIT, TRANSFER}
+
+    private record Key(Endpoint endpoint, Phase phase) {
+        static final Comparator<Key> ORDER = Comparator.comparing((Key key) -> key.endpoint().path())
+                .thenComparing(key -> key.endpoint().method())
+                .thenComparing(Key::phase);
+    }
+
+    private final ConcurrentMap<Key, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Endpoint, LongAdder[]> connections = new ConcurrentHashMap<>();
+
+    public static PhaseTimings global() {
+        return GLOBAL;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long[] phases = new long[Phase.values().length];
+        current.set(phases);
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            record(new Endpoint(requestSpec.getMethod(), EndpointMetrics.template(URI.create(requestSpec.getURI()).getPath())),
+                    phases);
+            return response;
+        } finally {
+            current.remove();
+        }
+    }
+
+    // Called by the HTTP client on the thread that sends the request
+    static void add(Phase phase, long nanos) {
+        long[] phases = current.get();
+        if (phases != null) {
+            phases[phase.ordinal()] += Math.max(1, nanos);
+        }
+    }
+
+    private void record(Endpoint endpoint, long[] phases) {
+        if (phases[Phase.SEND.ordinal()] == 0) {
+            return;  // Never reached the network
+        }
+        for (Phase phase : Phase.values()) {
+            long nanos = phases[phase.ordinal()];
+            if (nanos > 0) {
+                histograms.computeIfAbsent(new Key(endpoint, phase), key -> new ConcurrentHistogram(3))
+                        .recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+            }
+        }
+        boolean opened = phases[Phase.CONNECT.ordinal()] > 0;
+        connections.computeIfAbsent(endpoint, e -> new LongAdder[]{new LongAdder(), new LongAdder()})[opened ? 0 : 1]
+                .increment();
+    }
+
+    // Writes prometheus() to -Dfakerestapi.phaseTimings (target/phase-timings.prom, "none" to skip)
+    // for a Prometheus textfile collector or a pushgateway; returns what was done, null if nothing
+    public String export() {
+        String file = System.getProperty(FILE_PROPERTY, "target/phase-timings.prom");
+        if (file.equals("none") || histograms.isEmpty()) {
+            return null;
+        }
+        Path path = Path.of(file);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.writeString(path, prometheus());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + path, e);
+        }
+        return "Request phase timings written to " + path;
+    }
+
+    public void reset() {
+        histograms.clear();
+        connections.clear();
+    }
+
+    // Summaries in seconds per endpoint and phase, and counters of new and reused connections
+    public String prometheus() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP fakerestapi_http_phase_seconds Time spent in each phase of a request\n");
+        out.append("# TYPE fakerestapi_http_phase_seconds summary\n");
+        Map<Key, Histogram> sorted = new TreeMap<>(Key.ORDER);
+        histograms.forEach((key, histogram) -> sorted.put(key, histogram.copy()));
+        sorted.forEach((key, histogram) -> {
+            String labels = labels(key.endpoint()) + ",phase=\"" + key.phase().name().toLowerCase(Locale.ROOT) + "\"";
+            for (double quantile : QUANTILES) {
+                out.append("fakerestapi_http_phase_seconds{").append(labels).append(",quantile=\"").append(quantile)
+                        .append("\"} ").append(seconds(histogram.getValueAtPercentile(quantile * 100))).append('\n');
+            }
+            out.append("fakerestapi_http_phase_seconds_sum{").append(labels).append("} ")
+                    .append(seconds(histogram.getMean() * histogram.getTotalCount())).append('\n');
+            out.append("fakerestapi_http_phase_seconds_count{").append(labels).append("} ")
+                    .append(histogram.getTotalCount()).append('\n');
+        });
+        out.append("# HELP fakerestapi_http_connections_total Requests that opened a new connection or reused a pooled one\n");
+        out.append("# TYPE fakerestapi_http_connections_total counter\n");
+        Map<Endpoint, LongAdder[]> byEndpoint = new TreeMap<>(Comparator.comparing(Endpoint::path).thenComparing(Endpoint::method));
+        byEndpoint.putAll(connections);
+        byEndpoint.forEach((endpoint, counts) -> {
+            out.append("fakerestapi_http_connections_total{").append(labels(endpoint)).append(",connection=\"new\"} ")
+                    .append(counts[0].sum()).append('\n');
+            out.append("fakerestapi_http_connections_total{").append(labels(endpoint)).append(",connection=\"reused\"} ")
+                    .append(counts[1].sum()).append('\n');
+        });
+        return out.toString();
+    }
+
+    private static String labels(Endpoint endpoint) {
+        return "method=\"" + endpoint.method() + "\",path=\"" + endpoint.path().replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String seconds(double micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1e6);
+    }
+}
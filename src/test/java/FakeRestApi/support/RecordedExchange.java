@@ -0,0 +1,44 @@
+package FakeRestApi.support;
+
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+// One request/response pair as captured by ExchangeRecorder. Capturing only keeps references and
+// the raw body bytes; the text is built by format(), which runs off the test thread.
+public record RecordedExchange(long sequence, String test, long startedAtMillis, long durationNanos,
+                               String method, String uri, Headers requestHeaders, Object requestBody,
+                               String statusLine, Headers responseHeaders, byte[] responseBody) {
+
+    public String format() {
+        StringBuilder text = new StringBuilder(256 + (responseBody == null ? 0 : responseBody.length));
+        text.append("=== ").append(Instant.ofEpochMilli(startedAtMillis))
+                .append(" [").append(test).append("] ")
+                .append(TimeUnit.NANOSECONDS.toMillis(durationNanos)).append(" ms\n");
+        text.append(method).append(' ').append(uri).append('\n');
+        appendHeaders(text, requestHeaders);
+        if (requestBody != null) {
+            text.append('\n').append(requestBody instanceof byte[] bytes
+                    ? new String(bytes, StandardCharsets.UTF_8)
+                    : requestBody.toString()).append('\n');
+        }
+        text.append("--- ").append(statusLine).append('\n');
+        appendHeaders(text, responseHeaders);
+        if (responseBody != null && responseBody.length > 0) {
+            text.append('\n').append(new String(responseBody, StandardCharsets.UTF_8)).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static void appendHeaders(StringBuilder text, Headers headers) {
+        if (headers == null) {
+            return;
+        }
+        for (Header header : headers) {
+            text.append(header.getName()).append(": ").append(header.getValue()).append('\n');
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package FakeRestApi.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Declares which API resources a test reads or mutates. In parallel runs ResourceLockListener
+// lets any number of READ tests of a resource run together, while a WRITE test runs alone on it,
+// so create/update/delete tests can't race with the reads that depend on the same ids.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ResourceLock {
+    // Resource names such as "Authors"
+    String[] value();
+
+    Mode mode() default Mode.READ;
+
+    enum Mode {
+        READ,
+        WRITE
+    }
+
+    // A test parameter that decides the mode of its own invocation instead of mode(), for
+    // data-driven tests whose rows differ in what they do
+    interface ModeProvider {
+        Mode lockMode();
+    }
+}
@@ -0,0 +1,64 @@
+package FakeRestApi.support;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+
+// Acquires the read/write locks declared by @ResourceLock around each test method, in the mode a
+// ResourceLock.ModeProvider parameter asks for when the invocation has one. Locks are taken in name
+// order so tests locking several resources can't deadlock, and the stamps are kept on the test
+// result because StampedLock, unlike ReentrantReadWriteLock, may be released from any thread.
+public class ResourceLockListener implements IInvokedMethodListener {
+    private static final String STAMPS = ResourceLockListener.class.getName() + ".stamps";
+    private static final ConcurrentMap<String, StampedLock> locks = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        ResourceLock declared = declaredLock(method);
+        if (declared == null) {
+            return;
+        }
+        String[] names = declared.value().clone();
+        Arrays.sort(names);
+        ResourceLock.Mode mode = Arrays.stream(testResult.getParameters())
+                .filter(ResourceLock.ModeProvider.class::isInstance)
+                .map(parameter -> ((ResourceLock.ModeProvider) parameter).lockMode())
+                .findFirst()
+                .orElse(declared.mode());
+        long[] stamps = new long[names.length];
+        for (int i = 0; i < names.length; i++) {
+            StampedLock lock = locks.computeIfAbsent(names[i], name -> new StampedLock());
+            stamps[i] = mode == ResourceLock.Mode.WRITE ? lock.writeLock() : lock.readLock();
+        }
+        testResult.setAttribute(STAMPS, stamps);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        ResourceLock declared = declaredLock(method);
+        long[] stamps = (long[]) testResult.getAttribute(STAMPS);
+        if (declared == null || stamps == null) {
+            return;
+        }
+        testResult.removeAttribute(STAMPS);
+        String[] names = declared.value().clone();
+        Arrays.sort(names);
+        for (int i = names.length - 1; i >= 0; i--) {
+            locks.get(names[i]).unlock(stamps[i]);
+        }
+    }
+
+    private static ResourceLock declaredLock(IInvokedMethod method) {
+        if (!method.isTestMethod()) {
+            return null;
+        }
+        Method javaMethod = method.getTestMethod().getConstructorOrMethod().getMethod();
+        return javaMethod == null ? null : javaMethod.getAnnotation(ResourceLock.class);
+    }
+}
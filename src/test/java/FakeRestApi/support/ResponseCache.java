@@ -0,0 +1,181 @@
+package FakeRestApi.support;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+// Suite-wide read-through cache for GET responses, so the many tests that fetch the same
+// reference data (book 1, the full lists) reach the server once. A 200 response is served from
+// memory for -Dfakerestapi.responseCache.ttl (60s); after that it is revalidated with
+// If-None-Match/If-Modified-Since when the server sent an ETag or Last-Modified, and fetched again
+// otherwise. Entries are evicted least recently used first once they hold more than
+// -Dfakerestapi.responseCache.maxBytes of body (16 MiB). Against a target that keeps writes (the
+// stateful stand-in, or any base URI other than the hosted service) any other method invalidates
+// the cached responses of the resource it targets, e.g. a PUT to /api/v1/Books/3 drops everything
+// under /api/v1/Books. It does so again once the write is answered, since update and delete tests
+// only take READ locks and a GET racing the write may have cached the old state meanwhile. The
+// hosted service and the default stand-in echo writes without keeping them, so there reads stay
+// cached. Enabled with -Dfakerestapi.responseCache=true, which the surefire configuration sets;
+// the load runner and the benchmarks always reach the server.
+public final class ResponseCache implements Filter {
+    public static final String PROPERTY = "fakerestapi.responseCache";
+    private static final ResponseCache INSTANCE = new ResponseCache(
+            Duration.parse("PT" + System.getProperty(PROPERTY + ".ttl", "60s")).toNanos(),
+            Long.getLong(PROPERTY + ".maxBytes", 16L << 20));
+
+    private final long ttlNanos;
+    private final long maxBytes;
+    private final BooleanSupplier writesPersist;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidated = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Entry(String path, String statusLine, Headers headers, String contentType, byte[] body,
+                         String etag, String lastModified, long storedAt) {
+        Entry refreshed(long now) {
+            return new Entry(path, statusLine, headers, contentType, body, etag, lastModified, now);
+        }
+
+        Response toResponse() {
+            ResponseBuilder builder = new ResponseBuilder()
+                    .setStatusCode(200)
+                    .setStatusLine(statusLine)
+                    .setHeaders(headers)
+                    .setBody(body);
+            if (contentType != null) {
+                builder.setContentType(contentType);
+            }
+            return builder.build();
+        }
+    }
+
+    ResponseCache(long ttlNanos, long maxBytes) {
+        this(ttlNanos, maxBytes, ResponseCache::writesPersist);
+    }
+
+    ResponseCache(long ttlNanos, long maxBytes, BooleanSupplier writesPersist) {
+        this.ttlNanos = ttlNanos;
+        this.maxBytes = maxBytes;
+        this.writesPersist = writesPersist;
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    public static ResponseCache instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String path = URI.create(requestSpec.getURI()).getPath();
+        if (!requestSpec.getMethod().equals("GET")) {
+            if (!writesPersist.getAsBoolean()) {
+                return ctx.next(requestSpec, responseSpec);
+            }
+            invalidate(resourceOf(path));
+            try {
+                return ctx.next(requestSpec, responseSpec);
+            } finally {
+                invalidate(resourceOf(path));
+            }
+        }
+        if (requestSpec.getHeaders().hasHeaderWithName("If-None-Match")
+                || requestSpec.getHeaders().hasHeaderWithName("If-Modified-Since")) {
+            // The test is exercising conditional requests itself
+            return ctx.next(requestSpec, responseSpec);
+        }
+        // Tests vary Accept on the same URI and expect different answers; the Content-Type many of
+        // them send on a GET has no body to describe, so it is left out
+        String key = requestSpec.getURI() + "\n" + requestSpec.getHeaders().getValues("Accept");
+        long now = System.nanoTime();
+        Entry cached = get(key);
+        if (cached != null && now - cached.storedAt() < ttlNanos) {
+            hits.increment();
+            return cached.toResponse();
+        }
+        boolean conditional = cached != null && (cached.etag() != null || cached.lastModified() != null);
+        if (conditional) {
+            if (cached.etag() != null) {
+                requestSpec.header("If-None-Match", cached.etag());
+            }
+            if (cached.lastModified() != null) {
+                requestSpec.header("If-Modified-Since", cached.lastModified());
+            }
+        }
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (conditional && response.getStatusCode() == 304) {
+            revalidated.increment();
+            put(key, cached.refreshed(System.nanoTime()));
+            return cached.toResponse();
+        }
+        misses.increment();
+        if (response.getStatusCode() == 200) {
+            put(key, new Entry(path, response.getStatusLine(), response.getHeaders(), response.getContentType(),
+                    response.asByteArray(), response.getHeader("ETag"), response.getHeader("Last-Modified"),
+                    System.nanoTime()));
+        }
+        return response;
+    }
+
+    private static boolean writesPersist() {
+        if (ApiTarget.isLocal()) {
+            return ApiTarget.standIn().isStateful();
+        }
+        return !ApiTarget.baseUri().equals(ApiTarget.HOSTED_BASE_URI);
+    }
+
+    private synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        bytes += entry.body().length - (previous == null ? 0 : previous.body().length);
+        for (Iterator<Entry> it = entries.values().iterator(); bytes > maxBytes && it.hasNext(); ) {
+            bytes -= it.next().body().length;
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private synchronized void invalidate(String resource) {
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (resourceOf(entry.path()).equalsIgnoreCase(resource)) {
+                bytes -= entry.body().length;
+                it.remove();
+            }
+        }
+    }
+
+    // "/api/v1/Books" for /api/v1/Books/3 and for /api/v1/Books itself
+    private static String resourceOf(String path) {
+        int end = 0;
+        for (int segment = 0; segment < 3 && end >= 0; segment++) {
+            end = path.indexOf('/', end + 1);
+        }
+        return end < 0 ? path : path.substring(0, end);
+    }
+
+    public synchronized String summary() {
+        return String.format("Response cache: hits %d, revalidated %d, misses %d, evictions %d, entries %d (%d KiB)",
+                hits.sum(), revalidated.sum(), misses.sum(), evictions.sum(), entries.size(), bytes >> 10);
+    }
+}
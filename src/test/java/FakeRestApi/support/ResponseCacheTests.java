@@ -0,0 +1,49 @@
+package FakeRestApi.support;
+
+import FakeRestApi.standin.StandInServer;
+import io.restassured.filter.Filter;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.assertEquals;
+
+// A cache of its own in front of a stateful stand-in of its own, so the suite's are untouched
+public class ResponseCacheTests {
+
+    @Test
+    public void aReadRacingAWriteLeavesNoStaleEntry() throws Exception {
+        ResponseCache cache = new ResponseCache(TimeUnit.SECONDS.toNanos(60), 1 << 20, () -> true);
+        try (StandInServer standIn = StandInServer.start(0, true);
+             ExecutorService reader = Executors.newSingleThreadExecutor()) {
+            String before = title(standIn, cache);
+            // Holds the PUT back, after the cache has seen it, until a GET on another thread has
+            // fetched and cached the book as it was
+            Filter readDuringTheWrite = (request, response, ctx) -> {
+                if (request.getMethod().equals("PUT")) {
+                    Future<String> read = reader.submit(() -> title(standIn, cache));
+                    try {
+                        assertEquals(read.get(), before);
+                    } catch (InterruptedException | ExecutionException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return ctx.next(request, response);
+            };
+            given().baseUri(standIn.baseUri()).filters(cache, readDuringTheWrite).contentType("application/json")
+                    .body("{\"title\":\"Rewritten\",\"pageCount\":1}")
+                    .put("/api/v1/Books/1").then().statusCode(200);
+
+            assertEquals(title(standIn, cache), "Rewritten");
+        }
+    }
+
+    private static String title(StandInServer standIn, ResponseCache cache) {
+        return given().baseUri(standIn.baseUri()).filter(cache).get("/api/v1/Books/1").path("title");
+    }
+}
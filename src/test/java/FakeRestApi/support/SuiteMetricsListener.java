@@ -0,0 +1,75 @@
+package FakeRestApi.support;
+
+import FakeRestApi.cassette.CassetteFilter;
+import FakeRestApi.contract.ContractFilter;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Warms the HTTP client up before a suite with BaseApiTest classes starts (other suites leave the
+// target alone, so no stand-in is started for them). Once it finishes, exports the request phase
+// timings, writes or summarizes the cassette when one is in use, and writes the client-side
+// metrics collected during the run, with those summaries, to target/suite-summary.txt (or the
+// file given by -Dfakerestapi.suiteSummary, none for no file) instead of the console.
+// Registered through META-INF/services so it applies to every suite without configuration.
+public class SuiteMetricsListener implements ISuiteListener {
+    private static final String SUMMARY_PROPERTY = "fakerestapi.suiteSummary";
+
+    @Override
+    public void onStart(ISuite suite) {
+        boolean callsTheApi = suite.getAllMethods().stream()
+                .anyMatch(method -> BaseApiTest.class.isAssignableFrom(method.getRealClass()));
+        if (callsTheApi) {
+            BaseApiTest.warmUp();
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ExchangeRecorder.flush();
+        List<String> summary = new ArrayList<>();
+        summary.add(HttpClientPool.summary());
+        summary.add("HTTP exchanges recorded: " + ExchangeRecorder.recorded()
+                + ", dropped from the log: " + ExchangeRecorder.dropped());
+        if (ResponseCache.enabled()) {
+            summary.add(ResponseCache.instance().summary());
+        }
+        if (ConcurrencyLimiter.enabled()) {
+            summary.add(ConcurrencyLimiter.instance().summary());
+        }
+        if (ContractFilter.enabled()) {
+            summary.add(ContractFilter.instance().summary());
+        }
+        String phases = PhaseTimings.global().export();
+        if (phases != null) {
+            summary.add(phases);
+        }
+        String cassette = CassetteFilter.finish();
+        if (cassette != null) {
+            summary.add(cassette);
+        }
+        write(suite, summary);
+    }
+
+    private static void write(ISuite suite, List<String> summary) {
+        String file = System.getProperty(SUMMARY_PROPERTY, "target/suite-summary.txt");
+        if (file.equals("none")) {
+            return;
+        }
+        Path path = Path.of(file);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.write(path, summary.stream().map(line -> "[" + suite.getName() + "] " + line).toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + path, e);
+        }
+    }
+}